@@ -0,0 +1,226 @@
+package towerofhanoi;
+
+import java.awt.Color;
+import java.util.EmptyStackException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// -------------------------------------------------------------------------
+/**
+ * Measures moves on towers shared by every benchmark thread, each thread
+ * trying random moves between random poles. ConcurrentTowers moves with a
+ * compare-and-set on one word; the baseline guards BitTowers with a single
+ * lock. The Treiber stack ConcurrentTower is measured too: pushing and
+ * popping on one shared tower, and moving a disk between three shared
+ * towers as a pop followed by a push. Run main() to repeat them all from 1
+ * to 64 threads, doubling each time, and see how throughput scales under
+ * contention.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContentionBenchmark
+{
+    /**
+     * The number of disks on the shared towers
+     */
+    @Param({ "21" })
+    public int disks;
+
+    private ConcurrentTowers lockFree;
+    private BitTowers locked;
+    private ConcurrentTower stack;
+    private ConcurrentTower[] treiber;
+
+    // ~ nested class .........................................................
+    /**
+     * The disk each thread pushes onto the shared stack. Every thread gets a
+     * disk of its own size, all smaller than the one at the bottom of the
+     * stack.
+     * 
+     * @author cooln
+     * @version Oct 16, 2026
+     */
+    @State(Scope.Thread)
+    public static class Pusher
+    {
+        private static final AtomicInteger SIZES = new AtomicInteger();
+
+        private Disk disk;
+
+        /**
+         * Gives the thread its disk.
+         */
+        @Setup
+        public void setUp()
+        {
+            int size = SIZES.incrementAndGet();
+            disk = new Disk(size, size, PuzzleWindow.DISK_HEIGHT, Color.GRAY);
+        }
+    }
+
+    /**
+     * Stacks every disk on the left pole of each model, and a disk larger
+     * than any thread's on the shared stack.
+     */
+    @Setup
+    public void setUp()
+    {
+        lockFree = new ConcurrentTowers(disks);
+        lockFree.fill(0);
+        locked = new BitTowers(disks);
+        locked.fill(0);
+
+        stack = new ConcurrentTower(0);
+        stack.push(new Disk(Integer.MAX_VALUE, 1, 1, Color.BLACK));
+        treiber = new ConcurrentTower[3];
+        for (int peg = 0; peg < 3; peg++)
+        {
+            treiber[peg] = new ConcurrentTower(peg);
+        }
+        for (int size = disks; size >= 1; size--)
+        {
+            treiber[0].push(
+                new Disk(size, size, PuzzleWindow.DISK_HEIGHT, Color.GRAY));
+        }
+    }
+
+
+    /**
+     * Tries a random move on the lock-free towers.
+     * 
+     * @return whether the move was made.
+     */
+    @Benchmark
+    public boolean lockFreeMove()
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return lockFree.tryMove(random.nextInt(3), random.nextInt(3));
+    }
+
+
+    /**
+     * Tries a random move on the towers guarded by one lock.
+     * 
+     * @return whether the move was made.
+     */
+    @Benchmark
+    public boolean lockedMove()
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(3);
+        int to = random.nextInt(3);
+        synchronized (locked)
+        {
+            return from != to && locked.tryMove(from, to);
+        }
+    }
+
+
+    /**
+     * Pushes the thread's disk onto the shared Treiber stack and, if it fit,
+     * pops the top disk off again. A thread only pops after it has pushed,
+     * so the stack never runs empty.
+     * 
+     * @param pusher
+     *            holds the thread's disk.
+     * @return whether the disk fit.
+     */
+    @Benchmark
+    public boolean treiberPushPop(Pusher pusher)
+    {
+        if (!stack.tryPush(pusher.disk))
+        {
+            return false;
+        }
+        stack.pop();
+        return true;
+    }
+
+
+    /**
+     * Tries a random move between the Treiber stack towers: the top disk is
+     * popped off the source and pushed onto the destination, or if it does
+     * not fit there onto whichever pole first takes it, starting with the
+     * source. A thread holding a disk can be held up, but never for good:
+     * no disk has gone on the source of the last disk popped since it was
+     * taken, so that one always fits back.
+     * 
+     * @return whether the disk was moved to the destination.
+     */
+    @Benchmark
+    public boolean treiberMove()
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(3);
+        int to = random.nextInt(3);
+        if (from == to || treiber[from].isEmpty())
+        {
+            return false;
+        }
+        Disk disk;
+        try
+        {
+            disk = treiber[from].pop();
+        }
+        catch (EmptyStackException e)
+        {
+            return false;
+        }
+        if (treiber[to].tryPush(disk))
+        {
+            return true;
+        }
+        int peg = from;
+        while (!treiber[peg].tryPush(disk))
+        {
+            Thread.onSpinWait();
+            peg = (peg + 1) % 3;
+        }
+        return false;
+    }
+
+
+    /**
+     * Runs the benchmarks with 1, 2, 4 and so on up to 64 threads.
+     * 
+     * @param args
+     *            not used.
+     * @throws RunnerException
+     *             if a run fails.
+     */
+    public static void main(String[] args)
+        throws RunnerException
+    {
+        for (int threads = 1; threads <= 64; threads *= 2)
+        {
+            Options options = new OptionsBuilder()
+                .include(ContentionBenchmark.class.getSimpleName())
+                .threads(threads)
+                .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package towerofhanoi;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// -------------------------------------------------------------------------
+/**
+ * Samples the latency of single moves of the optimal solution so that the
+ * report includes per-move percentiles such as p0.99. The moves are replayed
+ * in order, starting over once the puzzle is solved.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveLatencyBenchmark
+{
+    /**
+     * The number of disks in the replayed solution
+     */
+    @Param({ "20" })
+    public int disks;
+
+    private Tower[] linkedTowers;
+    private BitTowers bitTowers;
+    private long totalMoves;
+    private long nextMove;
+
+    /**
+     * Puts every disk on the left pole of both models.
+     */
+    @Setup
+    public void setUp()
+    {
+        totalMoves = HanoiMath.totalMoves(disks);
+        linkedTowers = new Tower[] { new Tower(Position.LEFT),
+            new Tower(Position.MIDDLE), new Tower(Position.RIGHT) };
+        for (int size = disks; size >= 1; size--)
+        {
+            linkedTowers[0].push(
+                new Disk(size, size, PuzzleWindow.DISK_HEIGHT, Color.GRAY));
+        }
+        bitTowers = new BitTowers(disks);
+        bitTowers.fill(0);
+        nextMove = 0;
+    }
+
+
+    /**
+     * Finds the next move, starting the puzzle over when it is solved.
+     * 
+     * @return the packed move to make.
+     */
+    private int advance()
+    {
+        if (nextMove == totalMoves)
+        {
+            nextMove = 0;
+            Tower[] solved = linkedTowers;
+            linkedTowers = new Tower[] { solved[2], solved[1], solved[0] };
+            bitTowers.fill(0);
+        }
+        int move = HanoiMath.moveAt(disks, nextMove);
+        nextMove++;
+        return move;
+    }
+
+
+    /**
+     * Makes one move on LinkedStack backed towers of Disk objects.
+     * 
+     * @return the moved disk.
+     */
+    @Benchmark
+    public Disk towerMove()
+    {
+        int move = advance();
+        Disk disk = linkedTowers[Move.from(move)].pop();
+        linkedTowers[Move.to(move)].push(disk);
+        return disk;
+    }
+
+
+    /**
+     * Makes one move on the BitTowers model.
+     * 
+     * @return the moved disk.
+     */
+    @Benchmark
+    public int bitTowersMove()
+    {
+        int move = advance();
+        return bitTowers.move(Move.from(move), Move.to(move));
+    }
+}
@@ -0,0 +1,106 @@
+package towerofhanoi;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// -------------------------------------------------------------------------
+/**
+ * Measures full solves of the puzzle without a window. Each invocation gets
+ * a fresh solver with every disk on the left tower, and the moves counter
+ * turns the invocation rate into moves per second.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverBenchmark
+{
+    /**
+     * The number of disks to solve for
+     */
+    @Param({ "10", "13", "16", "19", "22", "25", "28" })
+    public int disks;
+
+    private HanoiSolver solver;
+
+    // ~ nested class .........................................................
+    /**
+     * Counts the moves made so JMH reports them as a rate.
+     * 
+     * @author cooln
+     * @version Oct 16, 2026
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class MoveCounter
+    {
+        /**
+         * The number of moves made during the iteration
+         */
+        public long moves;
+    }
+
+    /**
+     * Builds a solver with every disk on the left tower.
+     */
+    @Setup(Level.Invocation)
+    public void setUp()
+    {
+        solver = new HanoiSolver(disks);
+        for (int size = disks; size >= 1; size--)
+        {
+            solver.getTower(Position.LEFT).push(
+                new Disk(size, size, PuzzleWindow.DISK_HEIGHT, Color.GRAY));
+        }
+    }
+
+
+    /**
+     * Solves the puzzle with the recursive engine.
+     * 
+     * @param counter
+     *            counts the moves made.
+     * @return the solver, so the work is not optimized away.
+     */
+    @Benchmark
+    public HanoiSolver recursive(MoveCounter counter)
+    {
+        solver.solve();
+        counter.moves += (1L << disks) - 1;
+        return solver;
+    }
+
+
+    /**
+     * Solves the puzzle with the iterative engine.
+     * 
+     * @param counter
+     *            counts the moves made.
+     * @return the solver, so the work is not optimized away.
+     */
+    @Benchmark
+    public HanoiSolver iterative(MoveCounter counter)
+    {
+        solver.solveIterative();
+        counter.moves += (1L << disks) - 1;
+        return solver;
+    }
+}
@@ -0,0 +1,84 @@
+package towerofhanoi;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// -------------------------------------------------------------------------
+/**
+ * Measures push and pop throughput of LinkedStack, with ArrayStack alongside
+ * for comparison. Each operation pushes one entry onto a stack already
+ * holding depth entries and pops it again.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class StackBenchmark
+{
+    /**
+     * The number of entries already on the stack
+     */
+    @Param({ "1", "64" })
+    public int depth;
+
+    private LinkedStack<Integer> linkedStack;
+    private ArrayStack<Integer> arrayStack;
+    private Integer entry;
+
+    /**
+     * Fills both stacks to the requested depth.
+     */
+    @Setup
+    public void setUp()
+    {
+        linkedStack = new LinkedStack<Integer>();
+        arrayStack = new ArrayStack<Integer>();
+        for (int i = 0; i < depth; i++)
+        {
+            linkedStack.push(i);
+            arrayStack.push(i);
+        }
+        entry = depth;
+    }
+
+
+    /**
+     * Pushes and pops one entry on the LinkedStack.
+     * 
+     * @return the popped entry.
+     */
+    @Benchmark
+    public Integer linkedPushPop()
+    {
+        linkedStack.push(entry);
+        return linkedStack.pop();
+    }
+
+
+    /**
+     * Pushes and pops one entry on the ArrayStack.
+     * 
+     * @return the popped entry.
+     */
+    @Benchmark
+    public Integer arrayPushPop()
+    {
+        arrayStack.push(entry);
+        return arrayStack.pop();
+    }
+}
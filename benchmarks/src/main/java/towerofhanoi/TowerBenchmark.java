@@ -0,0 +1,97 @@
+package towerofhanoi;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// -------------------------------------------------------------------------
+/**
+ * Measures Tower.push and ArrayTower.push, including their ordering check,
+ * and Disk.compareTo. Each tower holds a large disk; each operation pushes a
+ * smaller one on top of it and pops it off again.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class TowerBenchmark
+{
+    private Tower linkedTower;
+    private ArrayTower arrayTower;
+    private Disk small;
+    private Disk large;
+
+    /**
+     * Puts a large disk on each tower.
+     */
+    @Setup
+    public void setUp()
+    {
+        small = new Disk(
+            1,
+            PuzzleWindow.WIDTH_FACTOR,
+            PuzzleWindow.DISK_HEIGHT,
+            Color.GRAY);
+        large = new Disk(
+            2,
+            2 * PuzzleWindow.WIDTH_FACTOR,
+            PuzzleWindow.DISK_HEIGHT,
+            Color.GRAY);
+        linkedTower = new Tower(Position.LEFT);
+        linkedTower.push(large);
+        arrayTower = new ArrayTower(Position.LEFT);
+        arrayTower.push(large);
+    }
+
+
+    /**
+     * Pushes a small disk onto the LinkedStack backed tower and pops it.
+     * 
+     * @return the popped disk.
+     */
+    @Benchmark
+    public Disk linkedTowerPush()
+    {
+        linkedTower.push(small);
+        return linkedTower.pop();
+    }
+
+
+    /**
+     * Pushes a small disk onto the ArrayTower and pops it.
+     * 
+     * @return the popped disk.
+     */
+    @Benchmark
+    public Disk arrayTowerPush()
+    {
+        arrayTower.push(small);
+        return arrayTower.pop();
+    }
+
+
+    /**
+     * Compares two disks.
+     * 
+     * @return the result of the comparison.
+     */
+    @Benchmark
+    public int diskCompareTo()
+    {
+        return small.compareTo(large);
+    }
+}
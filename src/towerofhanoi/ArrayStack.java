@@ -0,0 +1,187 @@
+package towerofhanoi;
+
+import stack.StackInterface;
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+// -------------------------------------------------------------------------
+/**
+ * This class offers an array backed implementation of a generic stack data
+ * structure. Unlike LinkedStack, which creates a new node on every push and
+ * discards it on every pop, the entries are kept in a single array that is
+ * only reallocated, doubling in size, when it runs out of room. Pushing and
+ * popping therefore create no garbage once the stack has grown to its working
+ * size. It behaves exactly like LinkedStack: peek and pop throw an
+ * EmptyStackException on an empty stack and toString lists the entries from
+ * the top down.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ * @param <T>
+ *            Generic to be stored with the parameter
+ */
+public class ArrayStack<T>
+    implements StackInterface<T>
+{
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private T[] entries;
+    private int size;
+
+    /**
+     * Creates an empty stack with a default initial capacity.
+     */
+    public ArrayStack()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+
+    /**
+     * Creates an empty stack that can hold the given number of entries before
+     * it needs to grow.
+     * 
+     * @param initialCapacity
+     *            the number of entries to make room for.
+     * @throws IllegalArgumentException
+     *             if the capacity is negative.
+     */
+    @SuppressWarnings("unchecked")
+    public ArrayStack(int initialCapacity)
+    {
+        if (initialCapacity < 0)
+        {
+            throw new IllegalArgumentException(
+                "negative capacity: " + initialCapacity);
+        }
+        entries = (T[])new Object[Math.max(1, initialCapacity)];
+        size = 0;
+    }
+
+
+    /**
+     * Clears the entire stack, removing all entries. The array is kept so it
+     * can be reused, but its slots are cleared so the removed entries can be
+     * garbage collected.
+     */
+    @Override
+    public void clear()
+    {
+        Arrays.fill(entries, 0, size, null);
+        size = 0;
+    }
+
+
+    /**
+     * Returns the current size of the stack, representing the number of
+     * elements stored within.
+     *
+     * @return The total number of elements currently in the stack.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+
+    /**
+     * Determines if the stack is currently empty.
+     *
+     * @return True if the stack has no elements; false otherwise.
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+
+    /**
+     * Retrieves the entry on top of the stack without removing it.
+     * 
+     * @return The entry on top of the stack.
+     * @throws EmptyStackException
+     *             if the stack is currently empty.
+     */
+    @Override
+    public T peek()
+    {
+        if (size == 0)
+        {
+            throw new EmptyStackException();
+        }
+        return entries[size - 1];
+    }
+
+
+    /**
+     * Removes the entry on top of the stack and returns it. Its slot in the
+     * array is cleared so the stack does not keep it reachable.
+     * 
+     * @return The entry that was on top.
+     * @throws EmptyStackException
+     *             if the stack is currently empty.
+     */
+    @Override
+    public T pop()
+    {
+        if (size == 0)
+        {
+            throw new EmptyStackException();
+        }
+
+        size--;
+        T entry = entries[size];
+        entries[size] = null;
+
+        return entry;
+    }
+
+
+    /**
+     * Adds a new entry to the top of the stack, doubling the array first if
+     * it is full.
+     *
+     * @param anEntry
+     *            The data to be added to the top of the stack.
+     */
+    @Override
+    public void push(T anEntry)
+    {
+        if (size == entries.length)
+        {
+            entries = Arrays.copyOf(entries, 2 * entries.length);
+        }
+        entries[size] = anEntry;
+        size++;
+    }
+
+
+    /**
+     * Provides a string representation of the current state of the stack in
+     * the same format as LinkedStack. It starts with the most recently added
+     * element (left-most in the string) and progresses to the earliest added
+     * element.
+     *
+     * @return A string representation of the stack's content.
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder stackString = new StringBuilder();
+
+        stackString.append("[");
+        for (int i = size - 1; i >= 0; i--)
+        {
+            stackString.append(entries[i].toString());
+
+            if (i > 0)
+            {
+                stackString.append(", ");
+            }
+        }
+        stackString.append("]");
+
+        return stackString.toString();
+    }
+}
@@ -0,0 +1,155 @@
+package towerofhanoi;
+
+// -------------------------------------------------------------------------
+/**
+ * A tower that keeps its disks in an ArrayStack rather than a LinkedStack, so
+ * moving disks on and off it does not allocate a node on every push. In every
+ * other way it behaves like Tower: it sits at a fixed position, refuses a
+ * disk that is not smaller than the one on top of it, and keeps a Zobrist
+ * hash of the disks on it, updated on every push and pop.
+ *
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public class ArrayTower
+    extends ArrayStack<Disk>
+{
+
+    private Position position;
+    private int peg;
+    private long hash;
+
+    /**
+     * Creates an empty tower at the given position.
+     *
+     * @param position
+     *            The position where the tower is located.
+     */
+    public ArrayTower(Position position)
+    {
+        this(position.ordinal(), position);
+    }
+
+
+    /**
+     * Creates an empty tower on a numbered pole, for puzzles with more than
+     * three poles. Poles 0, 1 and 2 are the LEFT, MIDDLE and RIGHT positions;
+     * any further pole has the DEFAULT position.
+     *
+     * @param peg
+     *            The index of the pole where the tower is located.
+     */
+    public ArrayTower(int peg)
+    {
+        this(
+            peg,
+            peg < 3 ? Position.values()[peg] : Position.DEFAULT);
+    }
+
+
+    /**
+     * Shared constructor that sets both the pole index and the position.
+     *
+     * @param peg
+     *            The index of the pole where the tower is located.
+     * @param position
+     *            The position where the tower is located.
+     */
+    private ArrayTower(int peg, Position position)
+    {
+        super();
+        this.peg = peg;
+        this.position = position;
+        this.hash = 0;
+    }
+
+
+    // ~Public Methods ........................................................
+    /**
+     * Fetches the position of this tower.
+     *
+     * @return the position of the tower.
+     */
+    public Position position()
+    {
+        return position;
+    }
+
+
+    /**
+     * Fetches the index of the pole this tower is on.
+     *
+     * @return the index of the pole, counting from 0.
+     */
+    public int peg()
+    {
+        return peg;
+    }
+
+
+    /**
+     * Returns the Zobrist hash of the disks on the tower, computed the same
+     * way as Tower.hash().
+     *
+     * @return The hash of the tower, 0 when it is empty.
+     */
+    public long hash()
+    {
+        return hash;
+    }
+
+
+    /**
+     * Removes every disk from the tower.
+     */
+    @Override
+    public void clear()
+    {
+        super.clear();
+        hash = 0;
+    }
+
+
+    /**
+     * Removes the disk on top of the tower and returns it.
+     *
+     * @return The disk that was on top of the tower.
+     * @throws java.util.EmptyStackException
+     *             if the tower is empty.
+     */
+    @Override
+    public Disk pop()
+    {
+        Disk disk = super.pop();
+        hash ^= Zobrist.key(disk.size(), peg);
+        return disk;
+    }
+
+
+    /**
+     * Adds a disk to the top of the tower, provided it is smaller than the
+     * disk currently on top.
+     *
+     * @param disk
+     *            The disk to be added to the top of the tower.
+     * @throws IllegalArgumentException
+     *             when the provided disk is null.
+     * @throws IllegalStateException
+     *             when attempting to push a larger disk onto a smaller one.
+     */
+    @Override
+    public void push(Disk disk)
+    {
+        if (disk == null)
+        {
+            throw new IllegalArgumentException("disk is null");
+        }
+
+        if (!isEmpty() && disk.compareTo(peek()) >= 0)
+        {
+            throw new IllegalStateException();
+        }
+        super.push(disk);
+        hash ^= Zobrist.key(disk.size(), peg);
+    }
+}
@@ -0,0 +1,338 @@
+package towerofhanoi;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+import java.util.zip.CRC32;
+
+// -------------------------------------------------------------------------
+/**
+ * This class solves a whole list of independent puzzles headless, several at
+ * a time. Each instance is a line of the input file:
+ * 
+ * <pre>
+ * disks [pegs [from [to]]]
+ * </pre>
+ * 
+ * moving every disk from pole from (0 by default) to pole to (the last pole
+ * by default); blank lines and lines starting with # are skipped. Instances
+ * with more than three poles must go from the first pole to the last.
+ * 
+ * Every instance runs on its own virtual thread, with a semaphore bounding
+ * how many solve at once. A JSON object is written for each instance as soon
+ * as it finishes, so results stream out in completion order, with its line
+ * number, move count, solve time, and a CRC-32 checksum of its packed moves
+ * (see Move.pack()), or the error that stopped it. The checksum is computed
+ * on the instance's own virtual thread as the moves are made, so an instance
+ * needs no other thread.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public class BatchRunner
+{
+    private static final int CHECKSUM_BATCH = 4096;
+
+    private final int maxConcurrency;
+
+    // ~ private class ........................................................
+    /**
+     * One line of the instance list.
+     * 
+     * @author cooln
+     * @version Oct 16, 2026
+     */
+    private static class Instance
+    {
+        private final int disks;
+        private final int pegs;
+        private final int from;
+        private final int to;
+
+        /**
+         * Parses an instance.
+         * 
+         * @param fields
+         *            the whitespace separated fields of the line.
+         * @throws IllegalArgumentException
+         *             if the line is not a valid instance.
+         */
+        public Instance(String[] fields)
+        {
+            if (fields.length > 4)
+            {
+                throw new IllegalArgumentException("too many fields");
+            }
+            this.disks = Integer.parseInt(fields[0]);
+            this.pegs = fields.length > 1 ? Integer.parseInt(fields[1]) : 3;
+            this.from = fields.length > 2 ? Integer.parseInt(fields[2]) : 0;
+            this.to =
+                fields.length > 3 ? Integer.parseInt(fields[3]) : pegs - 1;
+            if (from < 0 || from >= pegs || to < 0 || to >= pegs)
+            {
+                throw new IllegalArgumentException(
+                    "no such pole: " + from + " or " + to);
+            }
+            if (pegs != 3 && (from != 0 || to != pegs - 1))
+            {
+                throw new IllegalArgumentException(
+                    "more than three poles only go from 0 to " + (pegs - 1));
+            }
+        }
+    }
+
+    // ~ private class ........................................................
+    /**
+     * Computes a CRC-32 of every move handed to it, in order. It is called on
+     * the thread doing the solving, and collects moves into a buffer that is
+     * added to the checksum whenever it fills.
+     * 
+     * @author cooln
+     * @version Oct 16, 2026
+     */
+    private static class Checksum
+        implements IntConsumer
+    {
+        private final CRC32 crc = new CRC32();
+        private final ByteBuffer bytes = ByteBuffer
+            .allocate(CHECKSUM_BATCH * Integer.BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+
+        /**
+         * Adds one move to the checksum.
+         * 
+         * @param move
+         *            the packed move.
+         */
+        @Override
+        public void accept(int move)
+        {
+            bytes.putInt(move);
+            if (!bytes.hasRemaining())
+            {
+                bytes.flip();
+                crc.update(bytes);
+                bytes.clear();
+            }
+        }
+
+
+        /**
+         * Returns the checksum of the moves so far.
+         * 
+         * @return the CRC-32.
+         */
+        public long value()
+        {
+            bytes.flip();
+            crc.update(bytes);
+            bytes.clear();
+            return crc.getValue();
+        }
+    }
+
+    /**
+     * Creates a runner that solves at most the given number of instances at
+     * once.
+     * 
+     * @param maxConcurrency
+     *            the largest number of instances solving at the same time.
+     * @throws IllegalArgumentException
+     *             if maxConcurrency is not positive.
+     */
+    public BatchRunner(int maxConcurrency)
+    {
+        if (maxConcurrency < 1)
+        {
+            throw new IllegalArgumentException(
+                "concurrency: " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+    }
+
+
+    /**
+     * Solves every instance in a file, writing one line of JSON per instance
+     * as each finishes. Instances that can't be parsed or solved are
+     * reported in the output and don't stop the batch.
+     * 
+     * @param instances
+     *            the file listing the instances.
+     * @param out
+     *            receives the results; it is flushed after every line.
+     * @return the number of instances run.
+     * @throws IOException
+     *             if the instances can't be read or a result can't be
+     *             written.
+     * @throws InterruptedException
+     *             if interrupted while waiting for the instances to finish.
+     */
+    public int run(Path instances, Writer out)
+        throws IOException,
+        InterruptedException
+    {
+        Semaphore permits = new Semaphore(maxConcurrency);
+        AtomicReference<IOException> failure =
+            new AtomicReference<IOException>();
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(instances);
+            ExecutorService executor =
+                Executors.newVirtualThreadPerTaskExecutor())
+        {
+            String text;
+            int line = 0;
+            while ((text = reader.readLine()) != null)
+            {
+                line++;
+                text = text.trim();
+                if (text.isEmpty() || text.startsWith("#"))
+                {
+                    continue;
+                }
+                int number = line;
+                String[] fields = text.split("\\s+");
+                permits.acquire();
+                count++;
+                executor.execute(() -> {
+                    try
+                    {
+                        write(out, solve(number, fields));
+                    }
+                    catch (UncheckedIOException e)
+                    {
+                        failure.compareAndSet(null, e.getCause());
+                    }
+                    finally
+                    {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        if (failure.get() != null)
+        {
+            throw failure.get();
+        }
+        return count;
+    }
+
+
+    /**
+     * Solves one instance.
+     * 
+     * @param line
+     *            the line number of the instance.
+     * @param fields
+     *            the fields of the line.
+     * @return the result as one line of JSON.
+     */
+    private static String solve(int line, String[] fields)
+    {
+        Instance instance;
+        HeadlessSolver solver;
+        try
+        {
+            instance = new Instance(fields);
+            solver = new HeadlessSolver(instance.disks, instance.pegs);
+        }
+        catch (IllegalArgumentException e)
+        {
+            return error(
+                line,
+                Arrays.toString(fields) + ": " + e.getMessage());
+        }
+
+        Checksum checksum = new Checksum();
+        long start = System.nanoTime();
+        try
+        {
+            if (instance.from == 0 && instance.to == instance.pegs - 1)
+            {
+                solver.solve(checksum);
+            }
+            else
+            {
+                int[] goal = new int[instance.disks];
+                Arrays.fill(goal, instance.to);
+                solver.towers().clear();
+                solver.towers().fill(instance.from);
+                solver.solveTo(goal, checksum);
+            }
+        }
+        catch (RuntimeException e)
+        {
+            return error(line, e.toString());
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return String.format(
+            "{\"line\":%d,\"disks\":%d,\"pegs\":%d,\"from\":%d,\"to\":%d,"
+                + "\"moves\":%d,\"nanos\":%d,\"crc32\":\"%08x\"}",
+            line,
+            instance.disks,
+            instance.pegs,
+            instance.from,
+            instance.to,
+            solver.movesMade(),
+            elapsed,
+            checksum.value());
+    }
+
+
+    /**
+     * Builds the result of an instance that failed.
+     * 
+     * @param line
+     *            the line number of the instance.
+     * @param message
+     *            what went wrong.
+     * @return the result as one line of JSON.
+     */
+    private static String error(int line, String message)
+    {
+        String escaped = message.replace("\\", "\\\\").replace("\"", "\\\"");
+        return String.format(
+            "{\"line\":%d,\"error\":\"%s\"}",
+            line,
+            escaped);
+    }
+
+
+    /**
+     * Writes one result line and flushes it.
+     * 
+     * @param out
+     *            the output.
+     * @param result
+     *            the line of JSON.
+     * @throws UncheckedIOException
+     *             if it can't be written.
+     */
+    private static void write(Writer out, String result)
+    {
+        synchronized (out)
+        {
+            try
+            {
+                out.write(result);
+                out.write(System.lineSeparator());
+                out.flush();
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
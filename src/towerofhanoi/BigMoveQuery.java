@@ -0,0 +1,402 @@
+package towerofhanoi;
+
+import java.math.BigInteger;
+
+// -------------------------------------------------------------------------
+/**
+ * This class answers questions about the optimal three pole solution for any
+ * number of disks, however far past the 2^63 moves a long can count. Move
+ * indices are given as BigIntegers or as little endian words of a long
+ * array, words() longs per index with the lowest 64 bits first; the long
+ * array forms allocate nothing, so batches of millions of indices can be
+ * queried back to back out of one array.
+ * 
+ * As in HanoiMath, after k moves disk d has moved (k + 2^(d - 1)) / 2^d
+ * times, which is (k / 2^d) plus bit d - 1 of k, and steps around the poles
+ * in a fixed direction. Only that count modulo 3 matters. Since 2^64 leaves
+ * 1 modulo 3, the count for a single disk is the sum of the shifted words of
+ * k modulo 3, O(n / 64) word operations. For a full configuration, k / 2^d
+ * modulo 3 is carried from the highest bit down, each bit b taking r to
+ * (2r + b) mod 3, and a table of every byte and incoming remainder produces
+ * the poles of eight disks at a time.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public class BigMoveQuery
+{
+    /**
+     * The largest number of disks, the largest disk a packed move can name
+     */
+    public static final int MAX_DISKS = (1 << 23) - 1;
+
+    // for an odd or even number of disks, indexed by remainder * 256 + byte:
+    // the poles of the byte's eight disks, two bits each, and the remainder
+    // below the byte in bits 16 and 17
+    private static final int[][] BYTE_TABLES = {
+        byteTable(0), byteTable(1) };
+
+    private final int numDisks;
+    private final int words;
+    private final int[] byteTable;
+
+    /**
+     * Creates a query engine for the solution with the given number of
+     * disks.
+     * 
+     * @param numDisks
+     *            the number of disks.
+     * @throws IllegalArgumentException
+     *             if the number of disks is not between 1 and MAX_DISKS.
+     */
+    public BigMoveQuery(int numDisks)
+    {
+        if (numDisks < 1 || numDisks > MAX_DISKS)
+        {
+            throw new IllegalArgumentException(
+                "unsupported number of disks: " + numDisks);
+        }
+        this.numDisks = numDisks;
+        this.words = (numDisks + Long.SIZE - 1) / Long.SIZE;
+        this.byteTable = BYTE_TABLES[numDisks & 1];
+    }
+
+
+    /**
+     * Builds the byte table for an odd or even number of disks.
+     * 
+     * @param parity
+     *            the number of disks modulo 2.
+     * @return the table.
+     */
+    private static int[] byteTable(int parity)
+    {
+        int[] table = new int[3 * 256];
+        for (int remainder = 0; remainder < 3; remainder++)
+        {
+            for (int bits = 0; bits < 256; bits++)
+            {
+                int r = remainder;
+                int pegs = 0;
+                for (int i = 7; i >= 0; i--)
+                {
+                    int bit = (bits >>> i) & 1;
+                    // disk 8j + i + 1 steps backward when n - i - 1 is even
+                    int step = ((parity - i - 1) & 1) == 0 ? 2 : 1;
+                    pegs |= ((r + bit) % 3 * step % 3) << (2 * i);
+                    r = (2 * r + bit) % 3;
+                }
+                table[remainder * 256 + bits] = pegs | (r << 16);
+            }
+        }
+        return table;
+    }
+
+
+    /**
+     * Retrieves the number of disks.
+     * 
+     * @return the number of disks.
+     */
+    public int disks()
+    {
+        return numDisks;
+    }
+
+
+    /**
+     * Retrieves the number of longs in a move index.
+     * 
+     * @return the number of words per index.
+     */
+    public int words()
+    {
+        return words;
+    }
+
+
+    /**
+     * Computes the total number of moves, 2^n - 1.
+     * 
+     * @return the number of moves.
+     */
+    public BigInteger totalMoves()
+    {
+        return BigInteger.ONE.shiftLeft(numDisks).subtract(BigInteger.ONE);
+    }
+
+
+    /**
+     * Converts a move index to words.
+     * 
+     * @param k
+     *            the number of moves made, from 0 to 2^n - 1.
+     * @return the index as words() little endian longs.
+     * @throws IndexOutOfBoundsException
+     *             if k is out of range.
+     */
+    public long[] toWords(BigInteger k)
+    {
+        if (k.signum() < 0 || k.bitLength() > numDisks)
+        {
+            throw new IndexOutOfBoundsException("move " + k);
+        }
+        long[] index = new long[words];
+        byte[] bytes = k.toByteArray();
+        for (int i = 0; i < bytes.length; i++)
+        {
+            int bit = 8 * (bytes.length - 1 - i);
+            if (bit < Long.SIZE * words)
+            {
+                index[bit >>> 6] |= (bytes[i] & 0xFFL) << (bit & 63);
+            }
+        }
+        return index;
+    }
+
+
+    /**
+     * Computes the pole a disk is on after k moves.
+     * 
+     * @param disk
+     *            the size of the disk, 1 being the smallest.
+     * @param k
+     *            the number of moves made, from 0 to 2^n - 1.
+     * @return the index of the pole holding the disk.
+     * @throws IndexOutOfBoundsException
+     *             if k or the disk is out of range.
+     */
+    public int pegOf(int disk, BigInteger k)
+    {
+        return pegOf(disk, toWords(k), 0);
+    }
+
+
+    /**
+     * Computes the pole a disk is on after k moves.
+     * 
+     * @param disk
+     *            the size of the disk, 1 being the smallest.
+     * @param indices
+     *            holds k as words() little endian longs.
+     * @param offset
+     *            the position of k's lowest word in indices.
+     * @return the index of the pole holding the disk.
+     * @throws IndexOutOfBoundsException
+     *             if k or the disk is out of range.
+     */
+    public int pegOf(int disk, long[] indices, int offset)
+    {
+        if (disk < 1 || disk > numDisks)
+        {
+            throw new IndexOutOfBoundsException("disk " + disk);
+        }
+        checkIndex(indices, offset);
+        int below = disk - 1;
+        int bit = (int)(indices[offset + (below >>> 6)] >>> below) & 1;
+        int moves = (shiftedMod3(indices, offset, disk) + bit) % 3;
+        return moves * step(disk) % 3;
+    }
+
+
+    /**
+     * Computes the pole of every disk after k moves.
+     * 
+     * @param k
+     *            the number of moves made, from 0 to 2^n - 1.
+     * @param pegs
+     *            receives the pole of disk d at pegs[d - 1].
+     * @throws IndexOutOfBoundsException
+     *             if k is out of range.
+     */
+    public void pegsAt(BigInteger k, int[] pegs)
+    {
+        pegsAt(toWords(k), 0, pegs);
+    }
+
+
+    /**
+     * Computes the pole of every disk after k moves, eight disks per table
+     * lookup.
+     * 
+     * @param indices
+     *            holds k as words() little endian longs.
+     * @param offset
+     *            the position of k's lowest word in indices.
+     * @param pegs
+     *            receives the pole of disk d at pegs[d - 1].
+     * @throws IndexOutOfBoundsException
+     *             if k is out of range.
+     */
+    public void pegsAt(long[] indices, int offset, int[] pegs)
+    {
+        checkIndex(indices, offset);
+        int fullBytes = numDisks >>> 3;
+        int remainder = 0;
+
+        int partial = numDisks & 7;
+        if (partial != 0)
+        {
+            int entry = byteTable[byteOf(indices, offset, fullBytes)];
+            remainder = entry >>> 16;
+            int base = 8 * fullBytes;
+            for (int i = 0; i < partial; i++)
+            {
+                pegs[base + i] = (entry >>> (2 * i)) & 3;
+            }
+        }
+        for (int b = fullBytes - 1; b >= 0; b--)
+        {
+            int entry = byteTable[remainder * 256
+                + byteOf(indices, offset, b)];
+            remainder = entry >>> 16;
+            int base = 8 * b;
+            pegs[base] = entry & 3;
+            pegs[base + 1] = (entry >>> 2) & 3;
+            pegs[base + 2] = (entry >>> 4) & 3;
+            pegs[base + 3] = (entry >>> 6) & 3;
+            pegs[base + 4] = (entry >>> 8) & 3;
+            pegs[base + 5] = (entry >>> 10) & 3;
+            pegs[base + 6] = (entry >>> 12) & 3;
+            pegs[base + 7] = (entry >>> 14) & 3;
+        }
+    }
+
+
+    /**
+     * Computes move k of the solution, counting from zero.
+     * 
+     * @param k
+     *            the index of the move, from 0 to 2^n - 2.
+     * @return the packed move (see Move.pack()).
+     * @throws IndexOutOfBoundsException
+     *             if k is out of range.
+     */
+    public int moveAt(BigInteger k)
+    {
+        return moveAt(toWords(k), 0);
+    }
+
+
+    /**
+     * Computes move k of the solution, counting from zero. It is made by
+     * the disk one larger than the number of trailing one bits of k.
+     * 
+     * @param indices
+     *            holds k as words() little endian longs.
+     * @param offset
+     *            the position of k's lowest word in indices.
+     * @return the packed move (see Move.pack()).
+     * @throws IndexOutOfBoundsException
+     *             if k is out of range.
+     */
+    public int moveAt(long[] indices, int offset)
+    {
+        checkIndex(indices, offset);
+        int ones = 0;
+        int word = 0;
+        while (word < words && indices[offset + word] == -1L)
+        {
+            ones += Long.SIZE;
+            word++;
+        }
+        if (word < words)
+        {
+            ones += Long.numberOfTrailingZeros(~indices[offset + word]);
+        }
+        if (ones >= numDisks)
+        {
+            throw new IndexOutOfBoundsException("move 2^" + numDisks
+                + " - 1");
+        }
+
+        int disk = ones + 1;
+        int from = pegOf(disk, indices, offset);
+        return Move.pack(disk, from, (from + step(disk)) % 3);
+    }
+
+
+    /**
+     * Computes how far around the poles a disk steps on each of its moves.
+     * 
+     * @param disk
+     *            the size of the disk, 1 being the smallest.
+     * @return 1 if the disk cycles forward, 2 if it cycles backward.
+     */
+    private int step(int disk)
+    {
+        return ((numDisks - disk) & 1) == 0 ? 2 : 1;
+    }
+
+
+    /**
+     * Checks that an index is in range: it must fit in indices, and no bit
+     * at or above bit n may be set.
+     * 
+     * @param indices
+     *            the indices.
+     * @param offset
+     *            the position of the index's lowest word.
+     * @throws IndexOutOfBoundsException
+     *             if the index is out of range.
+     */
+    private void checkIndex(long[] indices, int offset)
+    {
+        if (offset < 0 || offset > indices.length - words)
+        {
+            throw new IndexOutOfBoundsException("offset " + offset);
+        }
+        int topBits = numDisks & 63;
+        if (topBits != 0 && indices[offset + words - 1] >>> topBits != 0)
+        {
+            throw new IndexOutOfBoundsException("move past 2^" + numDisks
+                + " - 1");
+        }
+    }
+
+
+    /**
+     * Reads one byte of an index.
+     * 
+     * @param indices
+     *            the indices.
+     * @param offset
+     *            the position of the index's lowest word.
+     * @param b
+     *            the byte to read, 0 being the lowest.
+     * @return the byte.
+     */
+    private static int byteOf(long[] indices, int offset, int b)
+    {
+        return (int)(indices[offset + (b >>> 3)] >>> ((b & 7) << 3)) & 0xFF;
+    }
+
+
+    /**
+     * Computes an index shifted right by some bits, modulo 3, by adding up
+     * the 32 bit halves of its shifted words.
+     * 
+     * @param indices
+     *            the indices.
+     * @param offset
+     *            the position of the index's lowest word.
+     * @param shift
+     *            the number of bits to shift by.
+     * @return the shifted index modulo 3.
+     */
+    private int shiftedMod3(long[] indices, int offset, int shift)
+    {
+        int bits = shift & 63;
+        long sum = 0;
+        for (int i = shift >>> 6; i < words; i++)
+        {
+            long word = indices[offset + i] >>> bits;
+            if (bits != 0 && i + 1 < words)
+            {
+                word |= indices[offset + i + 1] << (Long.SIZE - bits);
+            }
+            sum += (word >>> 32) + (word & 0xFFFFFFFFL);
+        }
+        return (int)(sum % 3);
+    }
+}
@@ -0,0 +1,385 @@
+package towerofhanoi;
+
+import java.util.EmptyStackException;
+
+// -------------------------------------------------------------------------
+/**
+ * This class is a primitive, headless model of the towers of the puzzle. Each
+ * tower is a single long used as an occupancy mask: bit d - 1 is set when the
+ * disk of size d is on that tower. Since the smaller disks always sit on top,
+ * the top of a tower is simply its lowest set bit, so pushing, popping and
+ * moving disks are a few bit operations that never allocate. The same rule as
+ * Tower.push() is enforced: a disk can't be placed on top of a smaller one.
+ * Disks are plain sizes from 1 to disks() here; the Disk shapes are only
+ * needed when the puzzle is being shown in a PuzzleWindow.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public class BitTowers
+{
+    /**
+     * The largest number of disks a BitTowers can hold
+     */
+    public static final int MAX_DISKS = Long.SIZE;
+
+    private final long[] masks;
+    private final int numDisks;
+
+    /**
+     * Constructs three empty towers for a puzzle with the given number of
+     * disks.
+     * 
+     * @param numDisks
+     *            the number of disks in the puzzle.
+     */
+    public BitTowers(int numDisks)
+    {
+        this(numDisks, 3);
+    }
+
+
+    /**
+     * Constructs empty towers for a puzzle with the given number of disks and
+     * poles.
+     * 
+     * @param numDisks
+     *            the number of disks in the puzzle.
+     * @param numPegs
+     *            the number of poles.
+     * @throws IllegalArgumentException
+     *             if there are more than MAX_DISKS disks or no poles.
+     */
+    public BitTowers(int numDisks, int numPegs)
+    {
+        if (numDisks < 0 || numDisks > MAX_DISKS)
+        {
+            throw new IllegalArgumentException(
+                "unsupported number of disks: " + numDisks);
+        }
+        if (numPegs < 1)
+        {
+            throw new IllegalArgumentException(
+                "unsupported number of poles: " + numPegs);
+        }
+        this.numDisks = numDisks;
+        this.masks = new long[numPegs];
+    }
+
+
+    // ~Public Methods ........................................................
+    /**
+     * Retrieves the total number of disks in the puzzle.
+     * 
+     * @return The number of disks.
+     */
+    public int disks()
+    {
+        return numDisks;
+    }
+
+
+    /**
+     * Retrieves the number of poles.
+     * 
+     * @return The number of poles.
+     */
+    public int pegs()
+    {
+        return masks.length;
+    }
+
+
+    /**
+     * Removes every disk from every tower.
+     */
+    public void clear()
+    {
+        for (int peg = 0; peg < masks.length; peg++)
+        {
+            masks[peg] = 0;
+        }
+    }
+
+
+    /**
+     * Clears the towers and stacks every disk on a single pole, which is the
+     * starting configuration of the puzzle.
+     * 
+     * @param peg
+     *            the pole to hold all disks.
+     */
+    public void fill(int peg)
+    {
+        clear();
+        if (numDisks == MAX_DISKS)
+        {
+            masks[peg] = -1L;
+        }
+        else
+        {
+            masks[peg] = (1L << numDisks) - 1;
+        }
+    }
+
+
+    /**
+     * Retrieves the occupancy mask of a pole, where bit d - 1 is set when the
+     * disk of size d is on it.
+     * 
+     * @param peg
+     *            the pole to look at.
+     * @return the occupancy mask of the pole.
+     */
+    public long mask(int peg)
+    {
+        return masks[peg];
+    }
+
+
+    /**
+     * Determines if a pole has no disks.
+     * 
+     * @param peg
+     *            the pole to look at.
+     * @return True if the pole has no disks; false otherwise.
+     */
+    public boolean isEmpty(int peg)
+    {
+        return masks[peg] == 0;
+    }
+
+
+    /**
+     * Counts the disks on a pole.
+     * 
+     * @param peg
+     *            the pole to look at.
+     * @return The number of disks on the pole.
+     */
+    public int size(int peg)
+    {
+        return Long.bitCount(masks[peg]);
+    }
+
+
+    /**
+     * Retrieves the disk on top of a pole without removing it.
+     * 
+     * @param peg
+     *            the pole to look at.
+     * @return The size of the top disk.
+     * @throws EmptyStackException
+     *             if the pole is empty.
+     */
+    public int peek(int peg)
+    {
+        long mask = masks[peg];
+        if (mask == 0)
+        {
+            throw new EmptyStackException();
+        }
+        return Long.numberOfTrailingZeros(mask) + 1;
+    }
+
+
+    /**
+     * Finds the pole a disk is on.
+     * 
+     * @param disk
+     *            the size of the disk.
+     * @return the pole holding the disk, or -1 if it is on none.
+     */
+    public int pegOf(int disk)
+    {
+        long bit = 1L << (disk - 1);
+        for (int peg = 0; peg < masks.length; peg++)
+        {
+            if ((masks[peg] & bit) != 0)
+            {
+                return peg;
+            }
+        }
+        return -1;
+    }
+
+
+    /**
+     * Places a disk on top of a pole. As with Tower.push(), a disk can't be
+     * placed on top of a smaller one.
+     * 
+     * @param peg
+     *            the pole to place the disk on.
+     * @param disk
+     *            the size of the disk.
+     * @throws IllegalArgumentException
+     *             when the disk size is out of range.
+     * @throws IllegalStateException
+     *             when the disk is already placed or the top of the pole is
+     *             smaller than the disk.
+     */
+    public void push(int peg, int disk)
+    {
+        if (disk < 1 || disk > numDisks)
+        {
+            throw new IllegalArgumentException("no such disk: " + disk);
+        }
+        if (pegOf(disk) >= 0)
+        {
+            throw new IllegalStateException("disk already placed: " + disk);
+        }
+
+        long bit = 1L << (disk - 1);
+        if ((masks[peg] & (bit - 1)) != 0)
+        {
+            throw new IllegalStateException();
+        }
+        masks[peg] |= bit;
+    }
+
+
+    /**
+     * Removes the disk on top of a pole.
+     * 
+     * @param peg
+     *            the pole to take the disk from.
+     * @return The size of the removed disk.
+     * @throws EmptyStackException
+     *             if the pole is empty.
+     */
+    public int pop(int peg)
+    {
+        int disk = peek(peg);
+        masks[peg] &= masks[peg] - 1;
+        return disk;
+    }
+
+
+    /**
+     * Moves the top disk of one pole onto another. This is the headless
+     * equivalent of popping a Disk off one Tower and pushing it on another,
+     * and performs no allocation.
+     * 
+     * @param from
+     *            the pole to take the disk from.
+     * @param to
+     *            the pole to place the disk on.
+     * @return The size of the moved disk.
+     * @throws EmptyStackException
+     *             if the source pole is empty.
+     * @throws IllegalStateException
+     *             when the top of the destination pole is smaller than the
+     *             moved disk.
+     */
+    public int move(int from, int to)
+    {
+        long source = masks[from];
+        if (source == 0)
+        {
+            throw new EmptyStackException();
+        }
+
+        long top = source & -source;
+        if ((masks[to] & (top - 1)) != 0)
+        {
+            throw new IllegalStateException();
+        }
+        masks[from] = source ^ top;
+        masks[to] |= top;
+        return Long.numberOfTrailingZeros(top) + 1;
+    }
+
+
+    /**
+     * Replaces the occupancy masks of every pole at once, for callers that
+     * work on copies of the masks in a tight loop. The masks are trusted to
+     * describe a legal configuration.
+     * 
+     * @param pegMasks
+     *            the new mask of each pole, see mask().
+     */
+    void setMasks(long[] pegMasks)
+    {
+        System.arraycopy(pegMasks, 0, masks, 0, masks.length);
+    }
+
+
+    /**
+     * Moves the top disk of one pole onto another if that is a legal move,
+     * without throwing when it is not. This is what a validator of untrusted
+     * move sequences needs on its hot path.
+     * 
+     * @param from
+     *            the pole to take the disk from.
+     * @param to
+     *            the pole to place the disk on.
+     * @return true if the move was made; false if the source pole is empty
+     *         or its top disk is larger than the top of the destination.
+     */
+    public boolean tryMove(int from, int to)
+    {
+        long source = masks[from];
+        long top = source & -source;
+        if (source == 0 || (masks[to] & (top - 1)) != 0)
+        {
+            return false;
+        }
+        masks[from] = source ^ top;
+        masks[to] |= top;
+        return true;
+    }
+
+
+    /**
+     * Makes the only legal move between two poles: the smaller of their two
+     * top disks is moved onto the other pole. This is all that is needed to
+     * replay a move that only records which two poles were involved.
+     * 
+     * @param peg
+     *            one of the poles.
+     * @param otherPeg
+     *            the other pole.
+     * @return The packed move that was made, see Move.pack().
+     * @throws EmptyStackException
+     *             if both poles are empty.
+     */
+    public int moveBetween(int peg, int otherPeg)
+    {
+        long mask = masks[peg];
+        long otherMask = masks[otherPeg];
+        if (otherMask == 0 || (mask != 0
+            && Long.compareUnsigned(mask & -mask, otherMask & -otherMask) < 0))
+        {
+            return Move.pack(move(peg, otherPeg), peg, otherPeg);
+        }
+        return Move.pack(move(otherPeg, peg), otherPeg, peg);
+    }
+
+
+    /**
+     * Provides a string representation of the towers in the same format as
+     * HanoiSolver: each pole in turn, listing its disk sizes from the top.
+     * 
+     * @return A combined string of the contents of each pole.
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder str = new StringBuilder();
+        for (long mask : masks)
+        {
+            str.append("[");
+            while (mask != 0)
+            {
+                str.append(Long.numberOfTrailingZeros(mask) + 1);
+                mask &= mask - 1;
+                if (mask != 0)
+                {
+                    str.append(", ");
+                }
+            }
+            str.append("]");
+        }
+        return str.toString();
+    }
+}
@@ -0,0 +1,261 @@
+package towerofhanoi;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// -------------------------------------------------------------------------
+/**
+ * This class records how far a three pole solve has got, so that it can be
+ * picked up again after the process is stopped. A checkpoint is a small file
+ * holding the number of moves made and the disks on each pole:
+ * 
+ * <pre>
+ * offset  0  int   magic "HNCP"
+ * offset  4  int   format version
+ * offset  8  int   number of disks
+ * offset 12  int   reserved
+ * offset 16  long  number of moves made
+ * offset 24  long  mask of the disks on pole 0, bit d - 1 for disk d
+ * offset 32  long  mask of the disks on pole 1
+ * offset 40  long  mask of the disks on pole 2
+ * </pre>
+ * 
+ * It is written to a temporary file beside the target, forced to disk, and
+ * then renamed over the target, so a crash part way through leaves the
+ * previous checkpoint intact.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public final class Checkpoint
+{
+    /**
+     * The first four bytes of every checkpoint
+     */
+    public static final int MAGIC = 0x484E4350;
+    /**
+     * The version of the format written by this class
+     */
+    public static final int VERSION = 1;
+    /**
+     * The size of a checkpoint in bytes
+     */
+    public static final int BYTES = 48;
+
+    private static final int PEGS = 3;
+
+    private final int numDisks;
+    private final long move;
+    private final long[] masks;
+
+    /**
+     * Creates a checkpoint of a set of three towers.
+     * 
+     * @param move
+     *            the number of moves made so far.
+     * @param towers
+     *            the towers after that many moves.
+     * @throws IllegalArgumentException
+     *             if the towers do not have exactly three poles.
+     */
+    public Checkpoint(long move, BitTowers towers)
+    {
+        if (towers.pegs() != PEGS)
+        {
+            throw new IllegalArgumentException(
+                "only supported with three poles, not " + towers.pegs());
+        }
+        this.numDisks = towers.disks();
+        this.move = move;
+        this.masks = new long[PEGS];
+        for (int peg = 0; peg < PEGS; peg++)
+        {
+            masks[peg] = towers.mask(peg);
+        }
+    }
+
+
+    /**
+     * Creates a checkpoint from the fields of a file.
+     * 
+     * @param numDisks
+     *            the number of disks.
+     * @param move
+     *            the number of moves made.
+     * @param masks
+     *            the disks on each pole.
+     */
+    private Checkpoint(int numDisks, long move, long[] masks)
+    {
+        this.numDisks = numDisks;
+        this.move = move;
+        this.masks = masks;
+    }
+
+
+    /**
+     * Retrieves the total number of disks in the puzzle.
+     * 
+     * @return The number of disks.
+     */
+    public int disks()
+    {
+        return numDisks;
+    }
+
+
+    /**
+     * Retrieves the number of moves made when the checkpoint was taken.
+     * 
+     * @return the number of moves made.
+     */
+    public long move()
+    {
+        return move;
+    }
+
+
+    /**
+     * Puts a set of towers back in the configuration of the checkpoint.
+     * 
+     * @param towers
+     *            the towers to restore, with the same number of disks and
+     *            three poles.
+     * @throws IllegalArgumentException
+     *             if the towers are not the same size as the checkpoint.
+     */
+    public void restore(BitTowers towers)
+    {
+        if (towers.disks() != numDisks || towers.pegs() != PEGS)
+        {
+            throw new IllegalArgumentException(
+                "checkpoint is for " + numDisks + " disks on three poles");
+        }
+        towers.clear();
+        for (int disk = numDisks; disk >= 1; disk--)
+        {
+            for (int peg = 0; peg < PEGS; peg++)
+            {
+                if ((masks[peg] >>> (disk - 1) & 1) != 0)
+                {
+                    towers.push(peg, disk);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Writes the checkpoint, atomically replacing any existing file.
+     * 
+     * @param file
+     *            the file to write.
+     * @throws IOException
+     *             if the file can't be written.
+     */
+    public void write(Path file)
+        throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(numDisks);
+        buffer.putInt(0);
+        buffer.putLong(move);
+        for (long mask : masks)
+        {
+            buffer.putLong(mask);
+        }
+        buffer.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(
+            temp,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE))
+        {
+            while (buffer.hasRemaining())
+            {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+
+        try
+        {
+            Files.move(
+                temp,
+                file,
+                StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException e)
+        {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+
+    /**
+     * Reads a checkpoint and checks that it holds a legal configuration of
+     * its disks.
+     * 
+     * @param file
+     *            the file to read.
+     * @return the checkpoint.
+     * @throws IOException
+     *             if the file can't be read or is not a valid checkpoint.
+     */
+    public static Checkpoint read(Path file)
+        throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel =
+            FileChannel.open(file, StandardOpenOption.READ))
+        {
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0)
+            {
+                // keep reading until the checkpoint is complete
+            }
+        }
+        buffer.flip();
+        if (buffer.remaining() < BYTES || buffer.getInt() != MAGIC
+            || buffer.getInt() != VERSION)
+        {
+            throw new IOException("not a checkpoint: " + file);
+        }
+
+        int numDisks = buffer.getInt();
+        buffer.getInt();
+        long move = buffer.getLong();
+        long[] masks = new long[PEGS];
+        for (int peg = 0; peg < PEGS; peg++)
+        {
+            masks[peg] = buffer.getLong();
+        }
+
+        long all = (1L << numDisks) - 1;
+        if (numDisks == BitTowers.MAX_DISKS)
+        {
+            all = -1L;
+        }
+        if (numDisks < 0 || numDisks > BitTowers.MAX_DISKS || move < 0
+            || (masks[0] & masks[1]) != 0 || (masks[0] & masks[2]) != 0
+            || (masks[1] & masks[2]) != 0
+            || (masks[0] | masks[1] | masks[2]) != all)
+        {
+            throw new IOException("corrupt checkpoint: " + file);
+        }
+        return new Checkpoint(numDisks, move, masks);
+    }
+}
@@ -0,0 +1,205 @@
+package towerofhanoi;
+
+import java.util.EmptyStackException;
+import java.util.concurrent.atomic.AtomicReference;
+
+// -------------------------------------------------------------------------
+/**
+ * This class is a tower that any number of threads can push disks onto and
+ * pop disks off at once, without locks. It is a Treiber stack: the top node
+ * is held in an AtomicReference, and each push or pop builds its new top and
+ * swings the reference to it with a compare-and-set, trying again if another
+ * thread got there first. Nodes are never changed once published, so a
+ * thread that loses the race has nothing to undo.
+ * 
+ * The ordering rule of Tower.push() is checked against the very top the
+ * compare-and-set replaces, so a disk can never land on a smaller one however
+ * the threads interleave; Tower's separate check and push leave a window for
+ * exactly that. Moving a disk between two of these towers still takes a pop
+ * and a push, with the disk held by the moving thread in between. Moves that
+ * must be atomic should use ConcurrentTowers instead.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public class ConcurrentTower
+{
+    private final int peg;
+    private final AtomicReference<Node> top;
+
+    // ~ private class ........................................................
+    /**
+     * One disk of the stack, and everything below it.
+     * 
+     * @author cooln
+     * @version Oct 16, 2026
+     */
+    private static final class Node
+    {
+        private final Disk disk;
+        private final Node next;
+        private final int size;
+
+        /**
+         * Creates a node on top of another.
+         * 
+         * @param disk
+         *            the disk.
+         * @param next
+         *            the node below, or null at the bottom.
+         */
+        public Node(Disk disk, Node next)
+        {
+            this.disk = disk;
+            this.next = next;
+            this.size = next == null ? 1 : next.size + 1;
+        }
+    }
+
+    /**
+     * Creates an empty tower.
+     * 
+     * @param peg
+     *            the index of the pole the tower stands on.
+     */
+    public ConcurrentTower(int peg)
+    {
+        this.peg = peg;
+        this.top = new AtomicReference<Node>();
+    }
+
+
+    /**
+     * Retrieves the index of the pole the tower stands on.
+     * 
+     * @return the pole index.
+     */
+    public int peg()
+    {
+        return peg;
+    }
+
+
+    /**
+     * Returns the number of disks on the tower at the moment of the call.
+     * 
+     * @return the number of disks.
+     */
+    public int size()
+    {
+        Node node = top.get();
+        return node == null ? 0 : node.size;
+    }
+
+
+    /**
+     * Checks whether the tower was empty at the moment of the call.
+     * 
+     * @return true if there were no disks on the tower.
+     */
+    public boolean isEmpty()
+    {
+        return top.get() == null;
+    }
+
+
+    /**
+     * Returns the disk on top of the tower without removing it.
+     * 
+     * @return the top disk.
+     * @throws EmptyStackException
+     *             if the tower is empty.
+     */
+    public Disk peek()
+    {
+        Node node = top.get();
+        if (node == null)
+        {
+            throw new EmptyStackException();
+        }
+        return node.disk;
+    }
+
+
+    /**
+     * Removes and returns the disk on top of the tower.
+     * 
+     * @return the disk taken off.
+     * @throws EmptyStackException
+     *             if the tower is empty.
+     */
+    public Disk pop()
+    {
+        while (true)
+        {
+            Node node = top.get();
+            if (node == null)
+            {
+                throw new EmptyStackException();
+            }
+            if (top.compareAndSet(node, node.next))
+            {
+                return node.disk;
+            }
+        }
+    }
+
+
+    /**
+     * Places a disk on top of the tower.
+     * 
+     * @param disk
+     *            the disk to place.
+     * @throws IllegalArgumentException
+     *             if the disk is null.
+     * @throws IllegalStateException
+     *             if the top disk is smaller than the one being placed.
+     */
+    public void push(Disk disk)
+    {
+        if (!tryPush(disk))
+        {
+            throw new IllegalStateException();
+        }
+    }
+
+
+    /**
+     * Places a disk on top of the tower unless the top disk is smaller.
+     * 
+     * @param disk
+     *            the disk to place.
+     * @return false, leaving the tower unchanged, if the top disk is smaller
+     *         than the one being placed.
+     * @throws IllegalArgumentException
+     *             if the disk is null.
+     */
+    public boolean tryPush(Disk disk)
+    {
+        if (disk == null)
+        {
+            throw new IllegalArgumentException();
+        }
+        while (true)
+        {
+            Node node = top.get();
+            if (node != null && disk.compareTo(node.disk) >= 0)
+            {
+                return false;
+            }
+            if (top.compareAndSet(node, new Node(disk, node)))
+            {
+                return true;
+            }
+        }
+    }
+
+
+    /**
+     * Removes every disk from the tower.
+     */
+    public void clear()
+    {
+        top.set(null);
+    }
+}
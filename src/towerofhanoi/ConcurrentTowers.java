@@ -0,0 +1,291 @@
+package towerofhanoi;
+
+import java.util.EmptyStackException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// -------------------------------------------------------------------------
+/**
+ * This class is a model of the three towers that any number of threads can
+ * move disks on at once, with every move atomic. As in BitTowers each tower
+ * is an occupancy mask, but all three are packed side by side into one long,
+ * MAX_DISKS bits each, held in an AtomicLong. A move reads the word, checks
+ * the top disks, flips the moving disk's bit on both poles and
+ * compare-and-sets the result, trying again if another thread moved first.
+ * The whole configuration changes in a single step, so a disk is never off
+ * every pole and never on a smaller one, no locks are taken, and no thread
+ * can be blocked by another. The word is the entire state, so a value that
+ * changes and changes back between a read and the compare-and-set is the
+ * same configuration and the move is still legal.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public class ConcurrentTowers
+{
+    /**
+     * The largest number of disks a ConcurrentTowers can hold, so that three
+     * towers fit in a long
+     */
+    public static final int MAX_DISKS = Long.SIZE / 3;
+
+    private static final long TOWER = (1L << MAX_DISKS) - 1;
+
+    private final AtomicLong state;
+    private final int numDisks;
+
+    /**
+     * Constructs three empty towers for a puzzle with the given number of
+     * disks.
+     * 
+     * @param numDisks
+     *            the number of disks in the puzzle.
+     * @throws IllegalArgumentException
+     *             if there are more than MAX_DISKS disks.
+     */
+    public ConcurrentTowers(int numDisks)
+    {
+        if (numDisks < 0 || numDisks > MAX_DISKS)
+        {
+            throw new IllegalArgumentException(
+                "unsupported number of disks: " + numDisks);
+        }
+        this.numDisks = numDisks;
+        this.state = new AtomicLong();
+    }
+
+
+    /**
+     * Retrieves the total number of disks in the puzzle.
+     * 
+     * @return The number of disks.
+     */
+    public int disks()
+    {
+        return numDisks;
+    }
+
+
+    /**
+     * Stacks every disk on a single pole, which is the starting configuration
+     * of the puzzle, whatever the towers held before.
+     * 
+     * @param peg
+     *            the pole to hold all disks.
+     */
+    public void fill(int peg)
+    {
+        state.set(((1L << numDisks) - 1) << shift(peg));
+    }
+
+
+    /**
+     * Retrieves the occupancy mask of a pole, where bit d - 1 is set when the
+     * disk of size d is on it.
+     * 
+     * @param peg
+     *            the pole to look at.
+     * @return the occupancy mask of the pole.
+     */
+    public long mask(int peg)
+    {
+        return tower(state.get(), peg);
+    }
+
+
+    /**
+     * Copies the occupancy masks of all three poles as they were at one
+     * instant.
+     * 
+     * @return the masks, indexed by pole.
+     */
+    public long[] snapshot()
+    {
+        long word = state.get();
+        return new long[] { tower(word, 0), tower(word, 1), tower(word, 2) };
+    }
+
+
+    /**
+     * Returns the number of disks on a pole.
+     * 
+     * @param peg
+     *            the pole to look at.
+     * @return the number of disks.
+     */
+    public int size(int peg)
+    {
+        return Long.bitCount(mask(peg));
+    }
+
+
+    /**
+     * Returns the size of the disk on top of a pole.
+     * 
+     * @param peg
+     *            the pole to look at.
+     * @return the size of the top disk.
+     * @throws EmptyStackException
+     *             if the pole is empty.
+     */
+    public int peek(int peg)
+    {
+        long mask = mask(peg);
+        if (mask == 0)
+        {
+            throw new EmptyStackException();
+        }
+        return Long.numberOfTrailingZeros(mask) + 1;
+    }
+
+
+    /**
+     * Atomically moves the top disk of one pole onto another.
+     * 
+     * @param from
+     *            the pole the disk is taken from.
+     * @param to
+     *            the pole the disk is placed on.
+     * @return the size of the disk moved.
+     * @throws EmptyStackException
+     *             if the source pole is empty.
+     * @throws IllegalStateException
+     *             if the top disk of the destination is smaller, or the two
+     *             poles are the same.
+     */
+    public int move(int from, int to)
+    {
+        int disk = attempt(from, to);
+        if (disk == 0)
+        {
+            throw new EmptyStackException();
+        }
+        if (disk < 0)
+        {
+            throw new IllegalStateException();
+        }
+        return disk;
+    }
+
+
+    /**
+     * Atomically moves the top disk of one pole onto another if the move is
+     * legal at that instant. Never throws for an illegal move, which is what
+     * threads racing over the same towers need.
+     * 
+     * @param from
+     *            the pole the disk is taken from.
+     * @param to
+     *            the pole the disk is placed on.
+     * @return true if the disk was moved; false, leaving the towers
+     *         unchanged, if the source pole was empty or the top disk of the
+     *         destination was smaller.
+     */
+    public boolean tryMove(int from, int to)
+    {
+        return attempt(from, to) > 0;
+    }
+
+
+    /**
+     * Moves the top disk of one pole onto another in a compare-and-set loop.
+     * 
+     * @param from
+     *            the pole the disk is taken from.
+     * @param to
+     *            the pole the disk is placed on.
+     * @return the size of the disk moved, 0 if the source pole was empty, or
+     *         -1 if the top disk of the destination was smaller or the two
+     *         poles are the same.
+     */
+    private int attempt(int from, int to)
+    {
+        int fromShift = shift(from);
+        int toShift = shift(to);
+        if (from == to)
+        {
+            return -1;
+        }
+        while (true)
+        {
+            long word = state.get();
+            long source = (word >>> fromShift) & TOWER;
+            if (source == 0)
+            {
+                return 0;
+            }
+            long disk = source & -source;
+            long destination = (word >>> toShift) & TOWER;
+            if (destination != 0 && (destination & -destination) < disk)
+            {
+                return -1;
+            }
+            long moved = word ^ (disk << fromShift) ^ (disk << toShift);
+            if (state.compareAndSet(word, moved))
+            {
+                return Long.numberOfTrailingZeros(disk) + 1;
+            }
+        }
+    }
+
+
+    /**
+     * Finds where a pole's mask sits in the state word.
+     * 
+     * @param peg
+     *            the pole.
+     * @return the bit offset of its mask.
+     * @throws IllegalArgumentException
+     *             if there is no such pole.
+     */
+    private static int shift(int peg)
+    {
+        if (peg < 0 || peg > 2)
+        {
+            throw new IllegalArgumentException("no such pole: " + peg);
+        }
+        return peg * MAX_DISKS;
+    }
+
+
+    /**
+     * Extracts a pole's mask from a state word.
+     * 
+     * @param word
+     *            the state word.
+     * @param peg
+     *            the pole.
+     * @return the occupancy mask of the pole.
+     */
+    private static long tower(long word, int peg)
+    {
+        return (word >>> shift(peg)) & TOWER;
+    }
+
+
+    /**
+     * Describes the three towers as they were at one instant, listing the
+     * disk sizes on each from the top down.
+     * 
+     * @return the description.
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder str = new StringBuilder();
+        for (long mask : snapshot())
+        {
+            str.append("[");
+            while (mask != 0)
+            {
+                str.append(Long.numberOfTrailingZeros(mask) + 1);
+                mask &= mask - 1;
+                if (mask != 0)
+                {
+                    str.append(", ");
+                }
+            }
+            str.append("]");
+        }
+        return str.toString();
+    }
+}
@@ -0,0 +1,384 @@
+package towerofhanoi;
+
+import java.util.function.IntConsumer;
+
+// -------------------------------------------------------------------------
+/**
+ * This class finds the shortest sequence of moves between any two legal
+ * configurations of the three pole puzzle. A configuration is given as the
+ * pole of every disk: config[d - 1] is the pole of the disk of size d. Since
+ * a pole's disks are always stacked by size, any such array is legal.
+ * 
+ * Disks that are already where they belong and larger than every misplaced
+ * disk never have to move, so only the largest misplaced disk matters. It
+ * goes from pole a to pole b either directly, with the smaller disks stacked
+ * on the third pole c, or by way of c, with the smaller disks stacked on b
+ * and then on a. The shortest path is always one of the two, and both their
+ * lengths are computed in O(n) time with the greedy distance to a stacked
+ * tower. No search is needed, so the running time is O(n) plus one step per
+ * move produced.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public final class ConfigurationSolver
+{
+    private ConfigurationSolver()
+    {
+        // static helpers only
+    }
+
+
+    /**
+     * Computes the length of the shortest move sequence between two
+     * configurations.
+     * 
+     * @param start
+     *            the pole of each disk in the starting configuration.
+     * @param goal
+     *            the pole of each disk in the goal configuration.
+     * @return the minimum number of moves.
+     * @throws IllegalArgumentException
+     *             if the configurations are not valid.
+     */
+    public static long distance(int[] start, int[] goal)
+    {
+        checkConfigurations(start, goal);
+        int largest = largestMismatch(start, goal);
+        if (largest < 0)
+        {
+            return 0;
+        }
+        return Math.min(directCost(start, goal, largest),
+            detourCost(start, goal, largest));
+    }
+
+
+    /**
+     * Computes the length of the shortest move sequence between two
+     * configurations of any number of disks, saturating at Long.MAX_VALUE
+     * when it does not fit in a long. With 63 or 64 disks a shortest path
+     * can take 2^63 moves or more, which distance() can't return.
+     * 
+     * @param start
+     *            the pole of each disk in the starting configuration.
+     * @param goal
+     *            the pole of each disk in the goal configuration.
+     * @return the minimum number of moves, or Long.MAX_VALUE if it is at
+     *         least that many.
+     * @throws IllegalArgumentException
+     *             if the configurations are not valid.
+     */
+    static long saturatedDistance(int[] start, int[] goal)
+    {
+        checkPoles(start, goal);
+        int largest = largestMismatch(start, goal);
+        if (largest < 0)
+        {
+            return 0;
+        }
+        return Math.min(directCost(start, goal, largest),
+            detourCost(start, goal, largest));
+    }
+
+
+    /**
+     * Produces the shortest move sequence between two configurations.
+     * 
+     * @param start
+     *            the pole of each disk in the starting configuration.
+     * @param goal
+     *            the pole of each disk in the goal configuration.
+     * @param moves
+     *            is handed each packed move (see Move.pack()) in order.
+     * @return the number of moves produced.
+     * @throws IllegalArgumentException
+     *             if the configurations are not valid.
+     */
+    public static long solve(int[] start, int[] goal, IntConsumer moves)
+    {
+        checkConfigurations(start, goal);
+        int largest = largestMismatch(start, goal);
+        if (largest < 0)
+        {
+            return 0;
+        }
+
+        int from = start[largest];
+        int to = goal[largest];
+        int other = 3 - from - to;
+        long direct = directCost(start, goal, largest);
+        long detour = detourCost(start, goal, largest);
+
+        if (direct <= detour)
+        {
+            toTower(start, largest, other, moves);
+            moves.accept(Move.pack(largest + 1, from, to));
+            fromTower(largest, other, goal, moves);
+            return direct;
+        }
+
+        toTower(start, largest, to, moves);
+        moves.accept(Move.pack(largest + 1, from, other));
+        solveThree(largest, to, other, from, moves);
+        moves.accept(Move.pack(largest + 1, other, to));
+        fromTower(largest, from, goal, moves);
+        return detour;
+    }
+
+
+    /**
+     * Checks that two configurations have the same number of disks, that
+     * number fits a long move count, and every pole is 0, 1 or 2.
+     * 
+     * @param start
+     *            the starting configuration.
+     * @param goal
+     *            the goal configuration.
+     */
+    private static void checkConfigurations(int[] start, int[] goal)
+    {
+        checkPoles(start, goal);
+        HanoiMath.totalMoves(start.length);
+    }
+
+
+    /**
+     * Checks that two configurations have the same number of disks and every
+     * pole is 0, 1 or 2.
+     * 
+     * @param start
+     *            the starting configuration.
+     * @param goal
+     *            the goal configuration.
+     */
+    private static void checkPoles(int[] start, int[] goal)
+    {
+        if (start.length != goal.length)
+        {
+            throw new IllegalArgumentException(
+                "configurations have different numbers of disks");
+        }
+        for (int i = 0; i < start.length; i++)
+        {
+            if (start[i] < 0 || start[i] > 2 || goal[i] < 0 || goal[i] > 2)
+            {
+                throw new IllegalArgumentException(
+                    "disk " + (i + 1) + " is not on a pole");
+            }
+        }
+    }
+
+
+    /**
+     * Finds the largest disk that is not on its goal pole.
+     * 
+     * @param start
+     *            the starting configuration.
+     * @param goal
+     *            the goal configuration.
+     * @return the index of that disk, or -1 if the configurations are equal.
+     */
+    private static int largestMismatch(int[] start, int[] goal)
+    {
+        int largest = start.length - 1;
+        while (largest >= 0 && start[largest] == goal[largest])
+        {
+            largest--;
+        }
+        return largest;
+    }
+
+
+    /**
+     * Computes the cost of moving the largest misplaced disk straight to its
+     * goal pole, saturating at Long.MAX_VALUE.
+     * 
+     * @param start
+     *            the starting configuration.
+     * @param goal
+     *            the goal configuration.
+     * @param largest
+     *            the index of the largest misplaced disk.
+     * @return the number of moves.
+     */
+    private static long directCost(int[] start, int[] goal, int largest)
+    {
+        int other = 3 - start[largest] - goal[largest];
+        return add(
+            add(distanceToTower(start, largest, other), 1),
+            distanceToTower(goal, largest, other));
+    }
+
+
+    /**
+     * Computes the cost of moving the largest misplaced disk to its goal pole
+     * by way of the third pole, saturating at Long.MAX_VALUE.
+     * 
+     * @param start
+     *            the starting configuration.
+     * @param goal
+     *            the goal configuration.
+     * @param largest
+     *            the index of the largest misplaced disk.
+     * @return the number of moves.
+     */
+    private static long detourCost(int[] start, int[] goal, int largest)
+    {
+        long cost = add(distanceToTower(start, largest, goal[largest]), 1);
+        if (largest >= Long.SIZE - 1)
+        {
+            return Long.MAX_VALUE;
+        }
+        cost = add(cost, 1L << largest);
+        return add(cost, distanceToTower(goal, largest, start[largest]));
+    }
+
+
+    /**
+     * Adds two non-negative move counts, saturating at Long.MAX_VALUE.
+     * 
+     * @param a
+     *            the first count.
+     * @param b
+     *            the second count.
+     * @return their sum, or Long.MAX_VALUE if it does not fit.
+     */
+    private static long add(long a, long b)
+    {
+        if (a > Long.MAX_VALUE - b)
+        {
+            return Long.MAX_VALUE;
+        }
+        return a + b;
+    }
+
+
+    /**
+     * Computes the number of moves needed to stack the smallest disks of a
+     * configuration on one pole. Going from the largest of them down, every
+     * disk that is not on the current target costs 2^i moves, and the disks
+     * below it then have to be gathered on the remaining pole. The count
+     * saturates at Long.MAX_VALUE.
+     * 
+     * @param config
+     *            the configuration.
+     * @param count
+     *            the number of smallest disks to stack.
+     * @param pole
+     *            the pole to stack them on.
+     * @return the number of moves.
+     */
+    private static long distanceToTower(int[] config, int count, int pole)
+    {
+        long moves = 0;
+        int target = pole;
+        for (int i = count - 1; i >= 0; i--)
+        {
+            if (config[i] != target)
+            {
+                moves = add(moves, 1L << i);
+                target = 3 - config[i] - target;
+            }
+        }
+        return moves;
+    }
+
+
+    /**
+     * Produces the moves that stack the smallest disks of a configuration on
+     * one pole.
+     * 
+     * @param config
+     *            the configuration.
+     * @param count
+     *            the number of smallest disks to stack.
+     * @param pole
+     *            the pole to stack them on.
+     * @param moves
+     *            is handed each packed move.
+     */
+    private static void toTower(
+        int[] config,
+        int count,
+        int pole,
+        IntConsumer moves)
+    {
+        for (int i = count - 1; i >= 0; i--)
+        {
+            if (config[i] != pole)
+            {
+                int other = 3 - config[i] - pole;
+                toTower(config, i, other, moves);
+                moves.accept(Move.pack(i + 1, config[i], pole));
+                solveThree(i, other, 3 - other - pole, pole, moves);
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * Produces the moves that take the smallest disks, stacked on one pole,
+     * to where they are in a configuration.
+     * 
+     * @param count
+     *            the number of smallest disks, all stacked on pole.
+     * @param pole
+     *            the pole they are stacked on.
+     * @param config
+     *            the configuration to reach.
+     * @param moves
+     *            is handed each packed move.
+     */
+    private static void fromTower(
+        int count,
+        int pole,
+        int[] config,
+        IntConsumer moves)
+    {
+        for (int i = count - 1; i >= 0; i--)
+        {
+            if (config[i] != pole)
+            {
+                int other = 3 - config[i] - pole;
+                solveThree(i, pole, config[i], other, moves);
+                moves.accept(Move.pack(i + 1, pole, config[i]));
+                fromTower(i, other, config, moves);
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * Moves a stack of the smallest disks from one pole to another with the
+     * classic recursion.
+     * 
+     * @param count
+     *            the number of disks to move.
+     * @param startPole
+     *            the pole the disks start on.
+     * @param tempPole
+     *            the pole used for temporary storage.
+     * @param endPole
+     *            the pole the disks end on.
+     * @param moves
+     *            is handed each packed move.
+     */
+    private static void solveThree(
+        int count,
+        int startPole,
+        int tempPole,
+        int endPole,
+        IntConsumer moves)
+    {
+        if (count == 0)
+        {
+            return;
+        }
+        solveThree(count - 1, startPole, endPole, tempPole, moves);
+        moves.accept(Move.pack(count, startPole, endPole));
+        solveThree(count - 1, tempPole, startPole, endPole, moves);
+    }
+}
@@ -11,9 +11,12 @@ import java.awt.Color;
  * represents the disk objects that we will be using to solve the tower of hanoi
  * recursion problem. The Disk class represents the disk objects that are used
  * to solve the tower of hanoi recursion problem. It extends the Shape class and
- * implements the Comparable interface to allow comparisons based on disk width.
- * Each disk is distinguished by its width, and they are visually represented
- * with random colors.
+ * implements the Comparable interface to allow comparisons based on disk size.
+ * Each disk is distinguished by its size, and they are visually represented
+ * with random colors or a color picked by the view. The size is also how a
+ * solver names the disk: in the moves it publishes, in Zobrist hashes and in
+ * move logs. Those count disks from 1, the smallest, up to the number of
+ * disks in the puzzle, so disks put on a solver should be sized that way.
  * 
  * @author cooln
  * @version Oct 5, 2023
@@ -22,19 +25,26 @@ public class Disk
     extends Shape
     implements Comparable<Disk>
 {
+    private final int size;
 
     // ----------------------------------------------------------
     /**
      * Constructs a new Disk object with a specified width. The height of the
      * disk is determined by PuzzleWindow.DISK_HEIGHT. Each disk is initialized
-     * with a random background color.
+     * with a random background color. The width doubles as the size of the
+     * disk, so a solver will publish it and hash it as the id of the disk.
      * 
      * @param width
      *            is the width of the disk.
+     * @deprecated a width is rarely a size from 1 to the number of disks,
+     *             which solvers identify disks by; use
+     *             Disk(int, int, int, Color) to give both.
      */
+    @Deprecated
     public Disk(int width)
     {
         super(0, 0, width, PuzzleWindow.DISK_HEIGHT);
+        this.size = width;
         TestableRandom randomGenerator = new TestableRandom();
 
         int red = randomGenerator.nextInt(256);
@@ -47,14 +57,47 @@ public class Disk
 
 
     /**
-     * Compares the width of this disk to another disk. This method is used to
+     * Constructs a new Disk object drawn to a given scale. Its size orders it
+     * against other disks, whatever width it is drawn at, and no random
+     * number generator is needed for its color.
+     * 
+     * @param size
+     *            is the size of the disk, 1 being the smallest.
+     * @param width
+     *            is the width the disk is drawn at.
+     * @param height
+     *            is the height the disk is drawn at.
+     * @param color
+     *            is the color of the disk.
+     */
+    public Disk(int size, int width, int height, Color color)
+    {
+        super(0, 0, width, height, color);
+        this.size = size;
+    }
+
+
+    /**
+     * Retrieves the size of the disk, which is what disks are compared by and
+     * what solvers identify the disk by, 1 being the smallest.
+     * 
+     * @return The size of the disk.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+
+    /**
+     * Compares the size of this disk to another disk. This method is used to
      * determine the relative size of the two disks.
      * 
      * @param otherDisk
      *            The disk to which this disk is to be compared.
-     * @return A positive integer if this disk is wider than the otherDisk, a
-     *             negative integer if this disk is narrower than the otherDisk,
-     *             and zero if both disks have the same width.
+     * @return A positive integer if this disk is larger than the otherDisk,
+     *             a negative integer if this disk is smaller than the
+     *             otherDisk, and zero if both disks have the same size.
      * @throws IllegalArgumentException
      *             If the provided otherDisk is null.
      */
@@ -64,11 +107,11 @@ public class Disk
         {
             throw new IllegalArgumentException();
         }
-        if (otherDisk.getWidth() < this.getWidth())
+        if (otherDisk.size < this.size)
         {
             return 1;
         }
-        if (otherDisk.getWidth() > this.getWidth())
+        if (otherDisk.size > this.size)
         {
             return -1; // valid push
         }
@@ -77,27 +120,27 @@ public class Disk
 
 
     /**
-     * Provides a string representation of the Disk, which is its width. This
+     * Provides a string representation of the Disk, which is its size. This
      * method can be used for debugging or any textual representation of the
      * disk.
      * 
-     * @return The width of the disk as a string.
+     * @return The size of the disk as a string.
      */
     @Override
     public String toString()
     {
-        return "" + this.getWidth();
+        return "" + this.size;
     }
 
 
     /**
-     * Compares this disk to another object for equality based on width. This
+     * Compares this disk to another object for equality based on size. This
      * method checks if the provided object is a Disk and if it has the same
-     * width as this disk.
+     * size as this disk.
      * 
      * @param obj
      *            The object to be compared for equality with this disk.
-     * @return true if the provided object is a disk with the same width as this
+     * @return true if the provided object is a disk with the same size as this
      *             disk; false otherwise.
      */
     public boolean equals(Object obj)
@@ -112,7 +155,19 @@ public class Disk
         }
 
         Disk otherDisk = (Disk)obj;
-        return this.getWidth() == otherDisk.getWidth();
+        return this.size == otherDisk.size;
+    }
+
+
+    /**
+     * Computes a hash code consistent with equals(), from the size.
+     * 
+     * @return The hash code of the disk.
+     */
+    @Override
+    public int hashCode()
+    {
+        return size;
     }
 
 }
@@ -0,0 +1,297 @@
+package towerofhanoi;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// -------------------------------------------------------------------------
+/**
+ * This class plans solutions for the puzzle with more than three poles using
+ * the Frame-Stewart algorithm. To move n disks with k poles, the top t disks
+ * are first moved to a spare pole using all k poles, the remaining n - t
+ * disks are moved to the destination using the other k - 1 poles, and the t
+ * disks are moved on top of them, again with all k poles. The best split t
+ * for every (disks, poles) pair is found by dynamic programming and kept in
+ * a table shared by every solve, so planning the same sizes again costs only
+ * a table lookup. The table is bounded by MAX_DISKS and MAX_PEGS, so it never
+ * takes more than a few hundred kilobytes.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public final class FrameStewart
+{
+    /**
+     * The largest number of disks that can be planned for
+     */
+    public static final int MAX_DISKS = 1024;
+    /**
+     * The largest number of poles that can be planned for
+     */
+    public static final int MAX_PEGS = 16;
+
+    // costs[k][n] and splits[k][n] for k poles and n disks, grown on demand
+    private static long[][] costs = new long[MAX_PEGS + 1][];
+    private static int[][] splits = new int[MAX_PEGS + 1][];
+
+    private FrameStewart()
+    {
+        // static helpers only
+    }
+
+
+    /**
+     * Computes the number of moves in the Frame-Stewart solution.
+     * 
+     * @param numDisks
+     *            the number of disks.
+     * @param numPegs
+     *            the number of poles, at least 3.
+     * @return the number of moves, or Long.MAX_VALUE if it does not fit in a
+     *         long.
+     * @throws IllegalArgumentException
+     *             if the sizes are out of range.
+     */
+    public static synchronized long moves(int numDisks, int numPegs)
+    {
+        ensureTable(numDisks, numPegs);
+        return costs[numPegs][numDisks];
+    }
+
+
+    /**
+     * Finds how many of the top disks are moved aside, using every pole,
+     * before the rest are moved with one pole fewer.
+     * 
+     * @param numDisks
+     *            the number of disks, at least 1.
+     * @param numPegs
+     *            the number of poles, at least 4.
+     * @return the optimal number of disks to move aside.
+     * @throws IllegalArgumentException
+     *             if the sizes are out of range.
+     */
+    public static synchronized int split(int numDisks, int numPegs)
+    {
+        ensureTable(numDisks, numPegs);
+        return splits[numPegs][numDisks];
+    }
+
+
+    /**
+     * Fills in the table up to the given number of disks for every pole
+     * count up to the given one.
+     * 
+     * @param numDisks
+     *            the number of disks needed.
+     * @param numPegs
+     *            the number of poles needed.
+     */
+    private static void ensureTable(int numDisks, int numPegs)
+    {
+        if (numDisks < 0 || numDisks > MAX_DISKS)
+        {
+            throw new IllegalArgumentException(
+                "unsupported number of disks: " + numDisks);
+        }
+        if (numPegs < 3 || numPegs > MAX_PEGS)
+        {
+            throw new IllegalArgumentException(
+                "unsupported number of poles: " + numPegs);
+        }
+        if (costs[numPegs] != null && costs[numPegs].length > numDisks)
+        {
+            return;
+        }
+
+        int size = Math.min(MAX_DISKS + 1, Math.max(64, 2 * numDisks + 1));
+        for (int k = 3; k <= numPegs; k++)
+        {
+            if (costs[k] != null && costs[k].length >= size)
+            {
+                continue;
+            }
+            long[] cost = new long[size];
+            int[] split = new int[size];
+            for (int n = 1; n < size; n++)
+            {
+                if (k == 3)
+                {
+                    cost[n] = n >= Long.SIZE - 1
+                        ? Long.MAX_VALUE
+                        : (1L << n) - 1;
+                    split[n] = n - 1;
+                    continue;
+                }
+                cost[n] = Long.MAX_VALUE;
+                for (int t = 1; t < n; t++)
+                {
+                    long candidate = add(
+                        add(cost[t], cost[t]),
+                        costs[k - 1][n - t]);
+                    if (candidate < cost[n])
+                    {
+                        cost[n] = candidate;
+                        split[n] = t;
+                    }
+                }
+                if (n == 1)
+                {
+                    cost[n] = 1;
+                }
+            }
+            costs[k] = cost;
+            splits[k] = split;
+        }
+    }
+
+
+    /**
+     * Adds two move counts, sticking at Long.MAX_VALUE instead of
+     * overflowing.
+     * 
+     * @param a
+     *            the first count.
+     * @param b
+     *            the second count.
+     * @return the saturated sum.
+     */
+    private static long add(long a, long b)
+    {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+
+    /**
+     * Generates the Frame-Stewart solution that moves every disk from pole 0
+     * to the last pole.
+     * 
+     * @param numDisks
+     *            the number of disks.
+     * @param numPegs
+     *            the number of poles, at least 3.
+     * @param moves
+     *            is handed each packed move (see Move.pack()) in order.
+     * @throws IllegalArgumentException
+     *             if the sizes are out of range.
+     */
+    public static void solve(int numDisks, int numPegs, IntConsumer moves)
+    {
+        int[][] plan = plan(numDisks, numPegs);
+        int[] spares = new int[numPegs - 2];
+        for (int i = 0; i < spares.length; i++)
+        {
+            spares[i] = i + 1;
+        }
+        solve(plan, numDisks, 0, 0, numPegs - 1, spares, moves);
+    }
+
+
+    /**
+     * Makes sure the table covers the given sizes and takes a copy of its
+     * split rows, so the recursion can read them without locking. Rows are
+     * only ever replaced, never changed, so the copy stays valid.
+     * 
+     * @param numDisks
+     *            the number of disks.
+     * @param numPegs
+     *            the number of poles.
+     * @return the split rows, indexed by number of poles.
+     */
+    private static synchronized int[][] plan(int numDisks, int numPegs)
+    {
+        ensureTable(numDisks, numPegs);
+        return splits.clone();
+    }
+
+
+    /**
+     * Moves disks base + 1 to base + currentDisks from one pole to another.
+     * 
+     * @param plan
+     *            the split rows, indexed by number of poles.
+     * @param currentDisks
+     *            the number of disks to move.
+     * @param base
+     *            the number of smaller disks that are not being moved.
+     * @param startPole
+     *            the pole the disks start on.
+     * @param endPole
+     *            the pole the disks end on.
+     * @param spares
+     *            the poles that may be used for temporary storage.
+     * @param moves
+     *            is handed each packed move.
+     */
+    private static void solve(
+        int[][] plan,
+        int currentDisks,
+        int base,
+        int startPole,
+        int endPole,
+        int[] spares,
+        IntConsumer moves)
+    {
+        if (currentDisks == 0)
+        {
+            return;
+        }
+        if (spares.length == 1 || currentDisks == 1)
+        {
+            solveThree(currentDisks, base, startPole, spares[0], endPole,
+                moves);
+            return;
+        }
+
+        int aside = plan[spares.length + 2][currentDisks];
+        int asidePole = spares[0];
+
+        int[] withEnd = Arrays.copyOf(spares, spares.length);
+        withEnd[0] = endPole;
+        int[] withStart = Arrays.copyOf(spares, spares.length);
+        withStart[0] = startPole;
+        int[] rest = Arrays.copyOfRange(spares, 1, spares.length);
+
+        solve(plan, aside, base, startPole, asidePole, withEnd, moves);
+        solve(plan, currentDisks - aside, base + aside, startPole, endPole,
+            rest, moves);
+        solve(plan, aside, base, asidePole, endPole, withStart, moves);
+    }
+
+
+    /**
+     * Moves disks base + 1 to base + currentDisks with the classic three
+     * pole recursion.
+     * 
+     * @param currentDisks
+     *            the number of disks to move.
+     * @param base
+     *            the number of smaller disks that are not being moved.
+     * @param startPole
+     *            the pole the disks start on.
+     * @param tempPole
+     *            the pole used for temporary storage.
+     * @param endPole
+     *            the pole the disks end on.
+     * @param moves
+     *            is handed each packed move.
+     */
+    private static void solveThree(
+        int currentDisks,
+        int base,
+        int startPole,
+        int tempPole,
+        int endPole,
+        IntConsumer moves)
+    {
+        if (currentDisks == 0)
+        {
+            return;
+        }
+        solveThree(currentDisks - 1, base, startPole, endPole, tempPole,
+            moves);
+        moves.accept(Move.pack(base + currentDisks, startPole, endPole));
+        solveThree(currentDisks - 1, base, tempPole, startPole, endPole,
+            moves);
+    }
+}
@@ -0,0 +1,176 @@
+package towerofhanoi;
+
+// -------------------------------------------------------------------------
+/**
+ * Closed-form arithmetic over the optimal three pole solution that moves a
+ * full stack from pole 0 to pole 2. In that solution disk i (0 being the
+ * smallest) moves every 2^(i + 1) moves starting at move 2^i, and always
+ * cycles around the poles in the same direction: forward (0, 1, 2) when
+ * n - i is even and backward (0, 2, 1) when it is odd. Both the k-th move and
+ * the position of every disk after k moves therefore follow directly from the
+ * bits of k, without replaying the moves before it.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+final class HanoiMath
+{
+    /**
+     * The largest number of disks whose move count fits in a long.
+     */
+    static final int MAX_DISKS = Long.SIZE - 2;
+
+    private HanoiMath()
+    {
+        // static helpers only
+    }
+
+
+    /**
+     * Computes the number of moves in the optimal solution, 2^n - 1.
+     * 
+     * @param numDisks
+     *            the number of disks.
+     * @return the total number of moves.
+     * @throws IllegalArgumentException
+     *             if the move count does not fit in a long.
+     */
+    static long totalMoves(int numDisks)
+    {
+        if (numDisks < 0 || numDisks > MAX_DISKS)
+        {
+            throw new IllegalArgumentException(
+                "unsupported number of disks: " + numDisks);
+        }
+        return (1L << numDisks) - 1;
+    }
+
+
+    /**
+     * Computes how far around the poles a disk steps on each of its moves.
+     * 
+     * @param numDisks
+     *            the number of disks in the puzzle.
+     * @param disk
+     *            the size of the disk, 1 being the smallest.
+     * @return 1 if the disk cycles forward, 2 if it cycles backward.
+     */
+    static int step(int numDisks, int disk)
+    {
+        return ((numDisks - disk) & 1) == 0 ? 2 : 1;
+    }
+
+
+    /**
+     * Computes the pole a disk sits on after a number of moves.
+     * 
+     * @param numDisks
+     *            the number of disks in the puzzle.
+     * @param disk
+     *            the size of the disk, 1 being the smallest.
+     * @param moves
+     *            the number of moves made so far.
+     * @return the index of the pole holding the disk.
+     */
+    static int pegOf(int numDisks, int disk, long moves)
+    {
+        int shift = disk - 1;
+        long diskMoves = (moves + (1L << shift)) >>> disk;
+        return (int)(diskMoves % 3) * step(numDisks, disk) % 3;
+    }
+
+
+    /**
+     * Computes the k-th move, counting from zero.
+     * 
+     * @param numDisks
+     *            the number of disks in the puzzle.
+     * @param k
+     *            the index of the move.
+     * @return the packed move, see Move.pack().
+     * @throws IndexOutOfBoundsException
+     *             if k is not a move of the solution.
+     */
+    static int moveAt(int numDisks, long k)
+    {
+        if (k < 0 || k >= totalMoves(numDisks))
+        {
+            throw new IndexOutOfBoundsException("move " + k);
+        }
+        int disk = Long.numberOfTrailingZeros(k + 1) + 1;
+        int from = pegOf(numDisks, disk, k);
+        int to = (from + step(numDisks, disk)) % 3;
+        return Move.pack(disk, from, to);
+    }
+
+
+    /**
+     * Computes the pole of every disk after k moves.
+     * 
+     * @param numDisks
+     *            the number of disks in the puzzle.
+     * @param k
+     *            the number of moves made, from 0 to 2^n - 1.
+     * @param pegs
+     *            receives the pole index of disk d at pegs[d - 1].
+     * @throws IndexOutOfBoundsException
+     *             if k is not between 0 and the total number of moves.
+     */
+    static void pegsAt(int numDisks, long k, int[] pegs)
+    {
+        if (k < 0 || k > totalMoves(numDisks))
+        {
+            throw new IndexOutOfBoundsException("move " + k);
+        }
+        for (int disk = 1; disk <= numDisks; disk++)
+        {
+            pegs[disk - 1] = pegOf(numDisks, disk, k);
+        }
+    }
+
+
+    /**
+     * Finds how many moves into the solution a configuration is reached, the
+     * inverse of pegsAt(). Working down from the largest disk, each disk
+     * must either still be on the pole its stack is moving from, which adds
+     * nothing, or already be on the pole it is moving to, which adds the
+     * 2^(d - 1) moves it took to get there; the smaller disks then form a
+     * stack moving between the other two poles.
+     * 
+     * @param numDisks
+     *            the number of disks in the puzzle.
+     * @param pegs
+     *            the pole index of disk d at pegs[d - 1].
+     * @return the number of moves after which the solution reaches the
+     *         configuration, or -1 if it never does.
+     */
+    static long indexOf(int numDisks, int[] pegs)
+    {
+        int source = 0;
+        int spare = 1;
+        int target = 2;
+        long moves = 0;
+        for (int disk = numDisks; disk >= 1; disk--)
+        {
+            int peg = pegs[disk - 1];
+            if (peg == source)
+            {
+                int swap = spare;
+                spare = target;
+                target = swap;
+            }
+            else if (peg == target)
+            {
+                moves += 1L << (disk - 1);
+                int swap = spare;
+                spare = source;
+                source = swap;
+            }
+            else
+            {
+                return -1;
+            }
+        }
+        return moves;
+    }
+}
@@ -1,6 +1,8 @@
 package towerofhanoi;
 
-import java.util.Observable;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 // -------------------------------------------------------------------------
 /**
@@ -8,27 +10,39 @@ import java.util.Observable;
  * this class serves as the primary models for the Tower of Hanoi puzzle.
  * Utilizing this class, one can efficiently tackle the problem. Class
  * structures such as this are vital for visualization. Keeps in mind the three
- * main towers: left, right, and middle. As a part of a larger system, this
- * class offers versatility. Regarding its capabilities, the HanoiSolver is
- * instrumental. Inheriting from the Observable class, this module enables
- * observer notifications. Not only is it effective, but also intuitive in its
- * design. Java developers will find the architecture familiar and easy to
- * navigate. Observable pattern implementation ensures that any changes (i.e.,
- * moves made) are communicated. Yields both iterative and recursive solutions
+ * main towers: left, right, and middle, plus any further numbered poles. As a
+ * part of a larger system, this class offers versatility. Regarding its
+ * capabilities, the HanoiSolver is instrumental. Through its MoveEventBus,
+ * this module enables move listener notifications. Not only is it effective,
+ * but also intuitive in its design.
+ * Java developers will find the architecture familiar and easy to navigate.
+ * The event bus ensures that any changes (i.e., moves made) are communicated
+ * without holding up the solver. Yields both iterative and recursive solutions
  * for the Tower of Hanoi problem.
  * 
  * @author cooln
  * @version Oct 9, 2023
  */
-@SuppressWarnings("deprecation")
 public class HanoiSolver
-    extends Observable
 {
 
-    private Tower left;
-    private Tower right;
-    private Tower middle;
+    private Tower[] towers;
     private int numDisks;
+    private MoveEventBus events;
+    private SolverMetrics metrics;
+    private TranspositionCache<int[]> plans;
+    private MoveRule rule;
+
+    /**
+     * The longest plan solveTo() will remember; longer ones are cheaper to
+     * recompute than to hold.
+     */
+    private static final int MAX_CACHED_PLAN = 1 << 16;
+
+    /**
+     * The number of moves solveIterative() counts and publishes at once
+     */
+    public static final int PUBLISH_BATCH = 1024;
 
     /**
      * Constructs a new HanoiSolver object with a specified number of disks.
@@ -39,11 +53,38 @@ public class HanoiSolver
      */
     public HanoiSolver(int numDisks)
     {
+        this(numDisks, 3);
+    }
+
+
+    /**
+     * Constructs a new HanoiSolver object with a specified number of disks
+     * and poles. Poles 0, 1 and 2 are the left, middle and right towers; the
+     * puzzle is solved by moving every disk from pole 0 to the last pole.
+     * 
+     * @param numDisks
+     *            is the total number of disks per puzzle
+     * @param numPegs
+     *            is the number of poles, from 3 to FrameStewart.MAX_PEGS
+     * @throws IllegalArgumentException
+     *             if the number of poles is out of range.
+     */
+    public HanoiSolver(int numDisks, int numPegs)
+    {
+        if (numPegs < 3 || numPegs > FrameStewart.MAX_PEGS)
+        {
+            throw new IllegalArgumentException(
+                "unsupported number of poles: " + numPegs);
+        }
         this.numDisks = numDisks;
 
-        left = new Tower(Position.LEFT);
-        right = new Tower(Position.RIGHT);
-        middle = new Tower(Position.MIDDLE);
+        towers = new Tower[numPegs];
+        for (int peg = 0; peg < numPegs; peg++)
+        {
+            towers[peg] = new Tower(peg);
+        }
+        events = new MoveEventBus();
+        rule = MoveRule.STANDARD;
     }
 
 
@@ -58,6 +99,17 @@ public class HanoiSolver
     }
 
 
+    /**
+     * Retrieves the number of poles in the puzzle.
+     * 
+     * @return The number of poles.
+     */
+    public int pegs()
+    {
+        return towers.length;
+    }
+
+
     /**
      * Depending on the provided position, retrieves either the left, middle, or
      * right tower.
@@ -68,23 +120,201 @@ public class HanoiSolver
      */
     public Tower getTower(Position pos)
     {
-        switch (pos)
+        if (pos == Position.DEFAULT)
+        {
+            return towers[Position.MIDDLE.ordinal()];
+        }
+        return towers[pos.ordinal()];
+    }
+
+
+    /**
+     * Retrieves the tower on a numbered pole.
+     * 
+     * @param peg
+     *            The index of the pole, counting from 0.
+     * @return The tower on that pole.
+     * @throws IndexOutOfBoundsException
+     *             if there is no such pole.
+     */
+    public Tower getTower(int peg)
+    {
+        return towers[peg];
+    }
+
+
+    /**
+     * Registers a listener to be told about every move the solver makes. The
+     * moves are delivered one at a time on a separate thread. If the
+     * listener throws, it is removed and the exception is thrown by the
+     * solving method, after the move being made at the time. Each listener
+     * has its own platform thread and a 256 KB ring of moves (see
+     * MoveEventBus), and the solver parks once a listener is a whole ring
+     * behind.
+     * 
+     * @param listener
+     *            the listener to add.
+     */
+    public void addMoveListener(MoveListener listener)
+    {
+        events.subscribe(listener);
+    }
+
+
+    /**
+     * Registers a listener to be told about every move the solver makes, up
+     * to batchSize moves at a time, on a separate thread.
+     * 
+     * @param listener
+     *            the listener to add.
+     * @param batchSize
+     *            the largest number of moves delivered at once.
+     */
+    public void addMoveListener(MoveListener listener, int batchSize)
+    {
+        events.subscribe(listener, batchSize);
+    }
+
+
+    /**
+     * Registers a listener to be told about moves up to batchSize at a time,
+     * on a separate thread, optionally dropping the moves it is too slow to
+     * take so that it never holds the solver back.
+     * 
+     * @param listener
+     *            the listener to add.
+     * @param batchSize
+     *            the largest number of moves delivered at once.
+     * @param dropWhenFull
+     *            true to drop moves once the listener is a whole ring
+     *            behind, rather than park the solver.
+     */
+    public void addMoveListener(
+        MoveListener listener,
+        int batchSize,
+        boolean dropWhenFull)
+    {
+        events.subscribe(listener, batchSize, dropWhenFull);
+    }
+
+
+    /**
+     * Returns the number of moves dropped so far by listeners added to drop
+     * the moves they are too slow to take.
+     * 
+     * @return the number of moves dropped.
+     */
+    public long droppedMoves()
+    {
+        return events.dropped();
+    }
+
+
+    /**
+     * Removes a previously registered move listener.
+     * 
+     * @param listener
+     *            the listener to remove.
+     */
+    public void removeMoveListener(MoveListener listener)
+    {
+        events.unsubscribe(listener);
+    }
+
+
+    /**
+     * Removes every move listener and stops the threads that delivered their
+     * moves. Moves not yet delivered are dropped. The solver can still be
+     * used, and listeners added again, afterwards.
+     */
+    public void close()
+    {
+        events.close();
+    }
+
+
+    /**
+     * Starts collecting metrics about moves and move listeners. Only one set
+     * of metrics is collected at a time, so this replaces any enabled before.
+     * 
+     * @param solverMetrics
+     *            the metrics to collect into, for as many poles as the
+     *            puzzle has.
+     * @throws IllegalArgumentException
+     *             if the metrics are for a different number of poles.
+     */
+    public void enableMetrics(SolverMetrics solverMetrics)
+    {
+        if (solverMetrics.pegs() != towers.length)
+        {
+            throw new IllegalArgumentException(
+                "metrics are for " + solverMetrics.pegs() + " poles");
+        }
+        disableMetrics();
+        solverMetrics.watch(events);
+        events.setLatencyHistogram(solverMetrics.listenerLatency());
+        metrics = solverMetrics;
+    }
+
+
+    /**
+     * Stops collecting metrics, leaving the move path as cheap as it was
+     * before they were enabled.
+     */
+    public void disableMetrics()
+    {
+        if (metrics != null)
+        {
+            metrics.watch(null);
+            events.setLatencyHistogram(null);
+            metrics = null;
+        }
+    }
+
+
+    /**
+     * Sets the rule on which poles disks may move between. Under any rule but
+     * STANDARD, solve() produces the optimal solution for that rule (see
+     * RestrictedSolver), moveAt() describes it, and every move is checked
+     * against the rule as well as against the order of the disks.
+     * 
+     * @param moveRule
+     *            the rule.
+     * @throws IllegalArgumentException
+     *             if the rule is null.
+     * @throws IllegalStateException
+     *             if the rule is not STANDARD and the puzzle does not have
+     *             exactly three poles.
+     */
+    public void setMoveRule(MoveRule moveRule)
+    {
+        if (moveRule == null)
+        {
+            throw new IllegalArgumentException("move rule is null");
+        }
+        if (moveRule != MoveRule.STANDARD)
         {
-            case LEFT:
-                return left;
-            case RIGHT:
-                return right;
-            case MIDDLE:
-                return middle;
-            default:
-                return middle;
+            requireThreePegs();
         }
+        rule = moveRule;
+    }
+
+
+    /**
+     * Retrieves the rule on which poles disks may move between.
+     * 
+     * @return the move rule, STANDARD unless set otherwise.
+     */
+    public MoveRule moveRule()
+    {
+        return rule;
     }
 
 
     /**
      * Provides a string representation of the HanoiSolver. Concatenates the
-     * string representation of left, middle, and right towers.
+     * string representation of left, middle, and right towers, followed by
+     * any further poles.
      * 
      * @return A combined string of the top values of each tower.
      */
@@ -92,9 +322,10 @@ public class HanoiSolver
     {
         StringBuilder str = new StringBuilder();
 
-        str.append(left);
-        str.append(middle);
-        str.append(right);
+        for (Tower tower : towers)
+        {
+            str.append(tower);
+        }
 
         return str.toString();
     }
@@ -103,18 +334,45 @@ public class HanoiSolver
     /**
      * Executes a move from the source tower to the destination tower. Pops a
      * Disk from the source tower and pushes it onto the destination tower.
-     * Observers are then notified of the change.
+     * The move is then counted in the metrics, if enabled, and published to
+     * the move listeners, identifying the disk by its size. The move rule is
+     * checked before anything is popped, so a forbidden move leaves the
+     * towers as they were. A failure of a move listener is only thrown
+     * after the disk has been moved, so the towers then hold the position
+     * after this move, part way through the solve; the failed listener has
+     * been removed, and with three poles solveTo() can finish the solve.
      * 
      * @param source
      *            The tower from which the disk is to be moved.
      * @param destination
      *            The tower to which the disk is to be moved.
+     * @throws IllegalStateException
+     *             if the move rule forbids moving between the two towers.
+     * @throws RuntimeException
+     *             whatever a move listener has thrown, once the move has
+     *             been made.
      */
     private void move(Tower source, Tower destination)
     {
-        destination.push(source.pop());
-        this.setChanged();
-        this.notifyObservers(destination.position());
+        if (!rule.allows(source.peg(), destination.peg()))
+        {
+            throw new IllegalStateException(
+                rule + " rule forbids moving from pole " + source.peg()
+                    + " to pole " + destination.peg());
+        }
+        Disk disk = source.pop();
+        destination.push(disk);
+        if (metrics != null)
+        {
+            metrics.moveMade(source.peg(), destination.peg());
+        }
+        if (events.hasSubscribers())
+        {
+            events.publish(Move.pack(
+                disk.size(),
+                source.peg(),
+                destination.peg()));
+        }
     }
 
 
@@ -156,10 +414,502 @@ public class HanoiSolver
      * Initiates the solution for the Tower of Hanoi problem. It provides the
      * recursive solveTowers() method with the initial parameters for the
      * complete puzzle, setting the left tower as the start pole, the middle
-     * tower as the temporary pole, and the right tower as the end pole.
+     * tower as the temporary pole, and the right tower as the end pole. With
+     * more than three poles, the disks are instead moved from pole 0 to the
+     * last pole along the Frame-Stewart plan, and under a move rule other
+     * than STANDARD along the optimal solution for that rule. It returns once
+     * every move listener has handled every move.
      */
     public void solve()
     {
-        solveTowers(numDisks, left, middle, right);
+        if (rule != MoveRule.STANDARD)
+        {
+            RestrictedSolver.solve(rule, numDisks, this::replay);
+        }
+        else if (towers.length == 3)
+        {
+            solveTowers(numDisks, towers[0], towers[1], towers[2]);
+        }
+        else
+        {
+            FrameStewart.solve(
+                numDisks,
+                towers.length,
+                move -> this.move(towers[Move.from(move)],
+                    towers[Move.to(move)]));
+        }
+        events.flush();
+    }
+
+
+    /**
+     * Solves the Tower of Hanoi puzzle without recursion. The disk to move on
+     * step m is given by the binary move counter: it is disk 1 plus the
+     * number of trailing zeros of m. Every disk always steps around the
+     * poles in the same direction, backward when it has the same parity as
+     * the largest disk and forward otherwise (see HanoiMath.step()), so its
+     * pole is tracked without dividing the counter. The resulting move
+     * sequence is exactly the one produced by solve(), but the call stack
+     * stays flat no matter how many disks there are.
+     *
+     * Since the counter only ever makes legal moves, none of the checks of
+     * solve() are repeated: the disks are moved without comparing them, the
+     * nodes of the towers' stacks are relinked rather than allocated, and
+     * the size and Zobrist keys of every disk are looked up once before the
+     * first move. Disks are identified by their size, as solve() does.
+     * Moves are counted in the metrics and published to the listeners in
+     * batches of PUBLISH_BATCH, so a listener failure is thrown at the end
+     * of the batch holding the failed move.
+     *
+     * @throws IllegalStateException
+     *             if there are too many disks for a long move counter, the
+     *             puzzle does not have exactly three poles, another move
+     *             rule is set, or the disks are not all on the left tower.
+     */
+    public void solveIterative()
+    {
+        requireThreePegs();
+        requireStandardRule();
+        if (numDisks >= Long.SIZE - 1)
+        {
+            throw new IllegalStateException(
+                "too many disks for iterative solve: " + numDisks);
+        }
+        if (towers[0].size() != numDisks
+            || !towers[1].isEmpty()
+            || !towers[2].isEmpty())
+        {
+            throw new IllegalStateException(
+                "disks are not all on the left tower");
+        }
+
+        int[] sizes = new int[numDisks + 1];
+        Disk[] disks = new Disk[numDisks + 1];
+        for (int disk = 1; disk <= numDisks; disk++)
+        {
+            disks[disk] = towers[0].pop();
+            sizes[disk] = disks[disk].size();
+        }
+        for (int disk = numDisks; disk >= 1; disk--)
+        {
+            towers[0].push(disks[disk]);
+        }
+
+        int[] pegs = new int[numDisks + 1];
+        int[] steps = new int[numDisks + 1];
+        for (int disk = 1; disk <= numDisks; disk++)
+        {
+            steps[disk] = HanoiMath.step(numDisks, disk);
+        }
+        long[][] keys = new long[3][numDisks + 1];
+        for (int peg = 0; peg < 3; peg++)
+        {
+            for (int disk = 1; disk <= numDisks; disk++)
+            {
+                keys[peg][disk] = Zobrist.key(sizes[disk], peg);
+            }
+        }
+
+        SolverMetrics counted = metrics;
+        boolean publish = events.hasSubscribers();
+        boolean record = publish || counted != null;
+        int[] batch = new int[PUBLISH_BATCH];
+        int filled = 0;
+
+        long totalMoves = (1L << numDisks) - 1;
+        for (long move = 1; move <= totalMoves; move++)
+        {
+            int disk = Long.numberOfTrailingZeros(move) + 1;
+            int from = pegs[disk];
+            int to = from + steps[disk];
+            if (to >= 3)
+            {
+                to -= 3;
+            }
+            pegs[disk] = to;
+            towers[from].moveTopUnchecked(
+                towers[to],
+                keys[from][disk],
+                keys[to][disk]);
+            if (record)
+            {
+                batch[filled] = Move.pack(sizes[disk], from, to);
+                filled++;
+                if (filled == PUBLISH_BATCH)
+                {
+                    report(counted, publish, batch, filled);
+                    filled = 0;
+                }
+            }
+        }
+        report(counted, publish, batch, filled);
+        events.flush();
+    }
+
+
+    /**
+     * Counts a batch of moves in the metrics and publishes it to the move
+     * listeners.
+     *
+     * @param counted
+     *            the metrics, or null if none are enabled.
+     * @param publish
+     *            whether there are listeners to publish to.
+     * @param batch
+     *            the packed moves.
+     * @param count
+     *            the number of moves in the batch.
+     */
+    private void report(
+        SolverMetrics counted,
+        boolean publish,
+        int[] batch,
+        int count)
+    {
+        if (count == 0)
+        {
+            return;
+        }
+        if (counted != null)
+        {
+            counted.movesMade(batch, count);
+        }
+        if (publish)
+        {
+            events.publish(batch, count);
+        }
+    }
+
+
+    /**
+     * Computes the k-th move of the solution produced by solve(), counting
+     * from zero, straight from the bits of k, or under another move rule in
+     * O(n) time (see RestrictedSolver). No earlier move is replayed and the
+     * towers are left untouched.
+     *
+     * @param k
+     *            the index of the move.
+     * @return the k-th move.
+     * @throws IndexOutOfBoundsException
+     *             if k is not less than the number of moves, 2^n - 1 under
+     *             the standard rule.
+     * @throws IllegalStateException
+     *             if the puzzle does not have exactly three poles.
+     */
+    public Move moveAt(long k)
+    {
+        requireThreePegs();
+        return Move.unpack(RestrictedSolver.moveAt(rule, numDisks, k));
+    }
+
+
+    /**
+     * Provides the moves of the solution produced by solve() as a lazily
+     * generated stream, identifying disks by size (1 being the smallest).
+     * Each move is computed from its index as it is needed, and parallel
+     * streams split the index range in half, so the 2^n - 1 moves are never
+     * held in memory. The towers are left untouched.
+     *
+     * @return the moves, in order.
+     * @throws IllegalStateException
+     *             if the puzzle does not have exactly three poles, or
+     *             another move rule is set.
+     */
+    public Stream<Move> moves()
+    {
+        return moveInts().mapToObj(Move::unpack);
+    }
+
+
+    /**
+     * Provides the moves of the solution produced by solve() as a lazily
+     * generated stream of packed moves (see Move.pack()), like moves() but
+     * without creating a Move object per move.
+     *
+     * @return the packed moves, in order.
+     * @throws IllegalStateException
+     *             if the puzzle does not have exactly three poles, or
+     *             another move rule is set.
+     */
+    public IntStream moveInts()
+    {
+        requireThreePegs();
+        requireStandardRule();
+        return StreamSupport.intStream(new MoveSpliterator(numDisks), false);
+    }
+
+
+    /**
+     * Computes where every disk sits after the first k moves of the solution
+     * produced by solve(). The towers are left untouched.
+     *
+     * @param k
+     *            the number of moves made, from 0 to 2^n - 1.
+     * @return the position of disk d, 1 being the smallest, at index d - 1.
+     * @throws IndexOutOfBoundsException
+     *             if k is out of range.
+     * @throws IllegalStateException
+     *             if the puzzle does not have exactly three poles, or
+     *             another move rule is set.
+     */
+    public Position[] positionsAt(long k)
+    {
+        requireThreePegs();
+        requireStandardRule();
+        int[] pegs = new int[numDisks];
+        HanoiMath.pegsAt(numDisks, k, pegs);
+
+        Position[] positions = new Position[numDisks];
+        for (int i = 0; i < numDisks; i++)
+        {
+            positions[i] = Position.values()[pegs[i]];
+        }
+        return positions;
+    }
+
+
+    /**
+     * Rearranges the disks on the towers into the configuration reached after
+     * the first k moves of the solution produced by solve(). The disks
+     * currently on the towers are reused, so this takes O(n) time however
+     * large k is. Move listeners are not notified.
+     *
+     * @param k
+     *            the number of moves made, from 0 to 2^n - 1.
+     * @throws IndexOutOfBoundsException
+     *             if k is out of range.
+     * @throws IllegalStateException
+     *             if the towers do not hold exactly disks() disks, the
+     *             puzzle does not have exactly three poles, or another move
+     *             rule is set.
+     */
+    public void stateAt(long k)
+    {
+        Position[] positions = positionsAt(k);
+        Disk[] disks = takeAllDisks(new int[numDisks]);
+        for (int i = numDisks - 1; i >= 0; i--)
+        {
+            getTower(positions[i]).push(disks[i]);
+        }
+    }
+
+
+    /**
+     * Moves the disks from wherever they are now to the given configuration
+     * along the shortest possible sequence of moves, which is found directly
+     * rather than by search (see ConfigurationSolver). The towers may hold any
+     * legal configuration, for example one restored in the middle of a
+     * session. Move listeners are notified of every move as usual. With a
+     * plan cache set (see setPlanCache()), a plan already found from the
+     * same configuration to the same goal is replayed without planning. Both
+     * are hashed by the rank of each disk among the disks on the towers, so
+     * the plan is found again whatever the disks are sized.
+     *
+     * @param goal
+     *            the position of disk d, 1 being the smallest, at index d - 1.
+     * @throws IllegalArgumentException
+     *             if the goal does not place every disk on LEFT, MIDDLE or
+     *             RIGHT.
+     * @throws IllegalStateException
+     *             if the towers do not hold exactly disks() disks, the
+     *             puzzle does not have exactly three poles, or another move
+     *             rule is set.
+     */
+    public void solveTo(Position[] goal)
+    {
+        requireThreePegs();
+        requireStandardRule();
+        if (goal.length != numDisks)
+        {
+            throw new IllegalArgumentException(
+                "goal must place " + numDisks + " disks");
+        }
+        int[] goalPegs = new int[numDisks];
+        for (int i = 0; i < numDisks; i++)
+        {
+            if (goal[i] == null || goal[i] == Position.DEFAULT)
+            {
+                throw new IllegalArgumentException(
+                    "disk " + (i + 1) + " is not on a pole");
+            }
+            goalPegs[i] = goal[i].ordinal();
+        }
+
+        TranspositionCache<int[]> cache = plans;
+        if (cache == null)
+        {
+            ConfigurationSolver.solve(currentPegs(), goalPegs, this::replay);
+            events.flush();
+            return;
+        }
+
+        int[] start = currentPegs();
+        long state = Zobrist.hash(start);
+        long target = Zobrist.hash(goalPegs);
+        int[] plan = cache.get(state, target);
+        if (plan == null)
+        {
+            if (ConfigurationSolver.distance(start, goalPegs)
+                > MAX_CACHED_PLAN)
+            {
+                ConfigurationSolver.solve(start, goalPegs, this::replay);
+                events.flush();
+                return;
+            }
+            IntStream.Builder recorded = IntStream.builder();
+            ConfigurationSolver.solve(start, goalPegs, recorded);
+            plan = recorded.build().toArray();
+            cache.put(state, target, plan);
+        }
+        for (int move : plan)
+        {
+            replay(move);
+        }
+        events.flush();
+    }
+
+
+    /**
+     * Makes a packed move (see Move.pack()) on the towers.
+     *
+     * @param move
+     *            the move.
+     */
+    private void replay(int move)
+    {
+        this.move(towers[Move.from(move)], towers[Move.to(move)]);
+    }
+
+
+    /**
+     * Remembers the plans found by solveTo() in a cache, keyed by the hash of
+     * the configuration they start from and of their goal, so planning again
+     * from a configuration seen before costs one lookup. The cache may be
+     * shared between solvers.
+     *
+     * @param cache
+     *            the cache, or null to stop caching.
+     */
+    public void setPlanCache(TranspositionCache<int[]> cache)
+    {
+        plans = cache;
+    }
+
+
+    /**
+     * Returns the Zobrist hash of the current configuration, the XOR of the
+     * hashes of every tower. It is kept up to date by each move in O(1)
+     * time, and equal configurations always hash alike. Disks are keyed by
+     * their size, so for disks sized 1 to disks() this is the hash of the
+     * positions returned by positionsAt() and expected by solveTo().
+     *
+     * @return the hash.
+     */
+    public long stateHash()
+    {
+        long hash = 0;
+        for (Tower tower : towers)
+        {
+            hash ^= tower.hash();
+        }
+        return hash;
+    }
+
+
+    /**
+     * Finds the pole of every disk by taking all disks off the towers in order
+     * of size and putting them back.
+     *
+     * @return the pole of the disk with rank d, 1 being the smallest, at
+     *         index d - 1.
+     * @throws IllegalStateException
+     *             if the towers do not hold exactly disks() disks.
+     */
+    private int[] currentPegs()
+    {
+        int[] pegs = new int[numDisks];
+        Disk[] disks = takeAllDisks(pegs);
+        for (int i = numDisks - 1; i >= 0; i--)
+        {
+            towers[pegs[i]].push(disks[i]);
+        }
+        return pegs;
+    }
+
+
+    /**
+     * Checks that the puzzle has the classic three poles, which the closed
+     * form and iterative solutions depend on.
+     * 
+     * @throws IllegalStateException
+     *             if there are more than three poles.
+     */
+    private void requireThreePegs()
+    {
+        if (towers.length != 3)
+        {
+            throw new IllegalStateException(
+                "only supported with three poles, not " + towers.length);
+        }
+    }
+
+
+    /**
+     * Checks that no other move rule is set, for the solutions that only
+     * exist under the standard rule.
+     * 
+     * @throws IllegalStateException
+     *             if the move rule is not STANDARD.
+     */
+    private void requireStandardRule()
+    {
+        if (rule != MoveRule.STANDARD)
+        {
+            throw new IllegalStateException(
+                "only supported under the standard rule, not " + rule);
+        }
+    }
+
+
+    /**
+     * Empties all the towers, merging their disks in order of size. Each
+     * tower already holds its disks smallest first, so a merge of the pops is
+     * enough.
+     *
+     * @param pegs
+     *            receives the pole each disk was taken from.
+     * @return every disk, smallest first.
+     * @throws IllegalStateException
+     *             if the towers do not hold exactly disks() disks.
+     */
+    private Disk[] takeAllDisks(int[] pegs)
+    {
+        int total = 0;
+        for (Tower tower : towers)
+        {
+            total += tower.size();
+        }
+        if (total != numDisks)
+        {
+            throw new IllegalStateException(
+                "towers do not hold " + numDisks + " disks");
+        }
+
+        Disk[] disks = new Disk[numDisks];
+        for (int i = 0; i < numDisks; i++)
+        {
+            Tower smallest = null;
+            for (Tower tower : towers)
+            {
+                if (!tower.isEmpty() && (smallest == null
+                    || tower.peek().compareTo(smallest.peek()) < 0))
+                {
+                    smallest = tower;
+                }
+            }
+            pegs[i] = smallest.peg();
+            disks[i] = smallest.pop();
+        }
+        return disks;
     }
 }
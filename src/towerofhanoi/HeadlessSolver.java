@@ -0,0 +1,433 @@
+package towerofhanoi;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// -------------------------------------------------------------------------
+/**
+ * This class solves the Tower of Hanoi puzzle without any of the graphical
+ * classes. Disks are plain sizes held in a BitTowers model, so neither Disk
+ * nor anything from cs2 or java.awt is ever loaded, which keeps start up fast
+ * on machines with no display. It makes exactly the same moves as
+ * HanoiSolver, from the left pole to the right pole (or to the last pole
+ * along the Frame-Stewart plan when there are more than three), and reports
+ * them to its move listeners identified by disk size. A solve can also hand
+ * every move to an IntConsumer on the solving thread itself, which costs no
+ * thread or ring buffer at all.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public class HeadlessSolver
+{
+    /**
+     * The default number of moves between two checkpoints
+     */
+    public static final long DEFAULT_CHECKPOINT_INTERVAL = 1L << 30;
+
+    private BitTowers towers;
+    private int numDisks;
+    private long movesMade;
+    // the moves of the solution the towers have reached, or -1 when
+    // solveTo() has left them in a configuration the solution never reaches
+    private long solvedMoves;
+    private long checkpointInterval;
+    private MoveEventBus events;
+
+    /**
+     * Constructs a new HeadlessSolver with every disk on the left pole.
+     * 
+     * @param numDisks
+     *            is the total number of disks per puzzle
+     * @throws IllegalArgumentException
+     *             if the number of moves would not fit in a long.
+     */
+    public HeadlessSolver(int numDisks)
+    {
+        this(numDisks, 3);
+    }
+
+
+    /**
+     * Constructs a new HeadlessSolver with the given number of poles and
+     * every disk on pole 0.
+     * 
+     * @param numDisks
+     *            is the total number of disks per puzzle
+     * @param numPegs
+     *            is the number of poles, from 3 to FrameStewart.MAX_PEGS
+     * @throws IllegalArgumentException
+     *             if the number of moves would not fit in a long, or the
+     *             number of poles is out of range.
+     */
+    public HeadlessSolver(int numDisks, int numPegs)
+    {
+        if (numPegs == 3)
+        {
+            HanoiMath.totalMoves(numDisks);
+        }
+        else if (FrameStewart.moves(numDisks, numPegs) == Long.MAX_VALUE)
+        {
+            throw new IllegalArgumentException(
+                "unsupported number of disks: " + numDisks);
+        }
+        this.numDisks = numDisks;
+        towers = new BitTowers(numDisks, numPegs);
+        towers.fill(0);
+        checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL;
+        events = new MoveEventBus();
+    }
+
+
+    /**
+     * Creates a solver in the state recorded by a checkpoint, so that
+     * solve() carries on from the move after it.
+     * 
+     * @param file
+     *            the checkpoint written by solve(Path).
+     * @return the restored solver.
+     * @throws IOException
+     *             if the checkpoint can't be read, or its towers are not the
+     *             ones the solution reaches after its number of moves.
+     */
+    public static HeadlessSolver resume(Path file)
+        throws IOException
+    {
+        Checkpoint checkpoint = Checkpoint.read(file);
+        int numDisks = checkpoint.disks();
+        if (checkpoint.move() > HanoiMath.totalMoves(numDisks))
+        {
+            throw new IOException("corrupt checkpoint: " + file);
+        }
+
+        HeadlessSolver solver = new HeadlessSolver(numDisks);
+        checkpoint.restore(solver.towers);
+        int[] expected = new int[numDisks];
+        HanoiMath.pegsAt(numDisks, checkpoint.move(), expected);
+        for (int disk = 1; disk <= numDisks; disk++)
+        {
+            if (solver.towers.pegOf(disk) != expected[disk - 1])
+            {
+                throw new IOException(
+                    "checkpoint does not match move " + checkpoint.move()
+                        + ": " + file);
+            }
+        }
+        solver.movesMade = checkpoint.move();
+        solver.solvedMoves = checkpoint.move();
+        return solver;
+    }
+
+
+    /**
+     * Retrieves the total number of disks in the puzzle.
+     * 
+     * @return The number of disks.
+     */
+    public int disks()
+    {
+        return numDisks;
+    }
+
+
+    /**
+     * Retrieves the towers of the puzzle.
+     * 
+     * @return the towers, indexed by Position.ordinal().
+     */
+    public BitTowers towers()
+    {
+        return towers;
+    }
+
+
+    /**
+     * Retrieves the number of moves made so far.
+     * 
+     * @return the number of moves made.
+     */
+    public long movesMade()
+    {
+        return movesMade;
+    }
+
+
+    /**
+     * Sets how many moves solve(Path) makes between two checkpoints. It is a
+     * power of two so the solve loop can run uninterrupted in between.
+     * 
+     * @param moves
+     *            the number of moves between checkpoints.
+     * @throws IllegalArgumentException
+     *             if moves is not a positive power of two.
+     */
+    public void setCheckpointInterval(long moves)
+    {
+        if (moves <= 0 || Long.bitCount(moves) != 1)
+        {
+            throw new IllegalArgumentException(
+                "checkpoint interval: " + moves);
+        }
+        checkpointInterval = moves;
+    }
+
+
+    /**
+     * Registers a listener to be told about every move, up to batchSize
+     * moves at a time, on a separate thread.
+     * 
+     * @param listener
+     *            the listener to add.
+     * @param batchSize
+     *            the largest number of moves delivered at once.
+     */
+    public void addMoveListener(MoveListener listener, int batchSize)
+    {
+        events.subscribe(listener, batchSize);
+    }
+
+
+    /**
+     * Removes a previously registered move listener.
+     * 
+     * @param listener
+     *            the listener to remove.
+     */
+    public void removeMoveListener(MoveListener listener)
+    {
+        events.unsubscribe(listener);
+    }
+
+
+    /**
+     * Removes every move listener and stops the threads that delivered their
+     * moves. Moves not yet delivered are dropped.
+     */
+    public void close()
+    {
+        events.close();
+    }
+
+
+    /**
+     * Solves the puzzle, moving every disk from the left pole to the right
+     * pole. The moves come from the same binary move counter as
+     * HanoiSolver.solveIterative(), so there is no recursion. With more than
+     * three poles the Frame-Stewart plan is followed instead. A solver made
+     * by resume() carries on from its checkpoint, and one moved by solveTo()
+     * from wherever that left the disks: along the rest of the solution if
+     * it is on the way, or else along the shortest path to the right pole.
+     * It returns once every move listener has handled every move.
+     */
+    public void solve()
+    {
+        solve((IntConsumer)null);
+    }
+
+
+    /**
+     * Solves the puzzle like solve(), also handing every packed move (see
+     * Move.pack()) to a consumer on the solving thread as it is made.
+     * 
+     * @param moves
+     *            is handed each move in order, or null for none.
+     */
+    public void solve(IntConsumer moves)
+    {
+        if (towers.pegs() != 3)
+        {
+            boolean publish = events.hasSubscribers();
+            FrameStewart.solve(numDisks, towers.pegs(), move -> {
+                towers.move(Move.from(move), Move.to(move));
+                movesMade++;
+                if (moves != null)
+                {
+                    moves.accept(move);
+                }
+                if (publish)
+                {
+                    events.publish(move);
+                }
+            });
+            events.flush();
+            return;
+        }
+
+        if (solvedMoves < 0)
+        {
+            finish(moves);
+            return;
+        }
+        long totalMoves = HanoiMath.totalMoves(numDisks);
+        solveRange(solvedMoves + 1, totalMoves, moves);
+        events.flush();
+    }
+
+
+    /**
+     * Solves the puzzle like solve(), writing a checkpoint every
+     * checkpoint interval moves and once more at the end. If the process
+     * is stopped, resume() with the same file picks the solve up again at
+     * the last checkpoint.
+     * 
+     * @param checkpoint
+     *            the file to write the checkpoints to.
+     * @throws IOException
+     *             if a checkpoint can't be written.
+     * @throws IllegalStateException
+     *             if the puzzle does not have exactly three poles.
+     */
+    public void solve(Path checkpoint)
+        throws IOException
+    {
+        if (towers.pegs() != 3)
+        {
+            throw new IllegalStateException(
+                "only supported with three poles, not " + towers.pegs());
+        }
+
+        if (solvedMoves < 0)
+        {
+            finish(null);
+            new Checkpoint(solvedMoves, towers).write(checkpoint);
+            return;
+        }
+        long totalMoves = HanoiMath.totalMoves(numDisks);
+        while (solvedMoves < totalMoves)
+        {
+            long last = Math.min(
+                totalMoves,
+                (solvedMoves | (checkpointInterval - 1)) + 1);
+            solveRange(solvedMoves + 1, last, null);
+            new Checkpoint(solvedMoves, towers).write(checkpoint);
+        }
+        events.flush();
+    }
+
+
+    /**
+     * Makes a range of the moves of the three pole solution, as walked by a
+     * MoveSpliterator.
+     * 
+     * @param first
+     *            the number of the first move to make, counting from 1.
+     * @param last
+     *            the number of the last move to make.
+     * @param moves
+     *            is handed each move in order, or null for none.
+     */
+    private void solveRange(long first, long last, IntConsumer moves)
+    {
+        boolean publish = events.hasSubscribers();
+        IntConsumer make = move -> {
+            towers.move(Move.from(move), Move.to(move));
+            movesMade++;
+            solvedMoves++;
+            if (moves != null)
+            {
+                moves.accept(move);
+            }
+            if (publish)
+            {
+                events.publish(move);
+            }
+        };
+        new MoveSpliterator(numDisks, first - 1, last).forEachRemaining(make);
+    }
+
+
+    /**
+     * Moves every disk from a configuration the solution never reaches to
+     * the right pole, along the shortest possible sequence of moves.
+     * 
+     * @param moves
+     *            is handed each move in order, or null for none.
+     */
+    private void finish(IntConsumer moves)
+    {
+        int[] solved = new int[numDisks];
+        Arrays.fill(solved, Position.RIGHT.ordinal());
+        solveTo(solved, moves);
+    }
+
+
+    /**
+     * Moves the disks from wherever they are now to the given configuration
+     * along the shortest possible sequence of moves (see
+     * ConfigurationSolver). A later solve() carries on from the goal. It
+     * returns once every move listener has handled every move.
+     * 
+     * @param goal
+     *            the pole of disk d, 1 being the smallest, at index d - 1.
+     * @throws IllegalArgumentException
+     *             if the goal is not a configuration of this puzzle.
+     * @throws IllegalStateException
+     *             if the puzzle does not have exactly three poles.
+     */
+    public void solveTo(int[] goal)
+    {
+        solveTo(goal, null);
+    }
+
+
+    /**
+     * Moves the disks to the given configuration like solveTo(), also
+     * handing every packed move (see Move.pack()) to a consumer on the
+     * solving thread as it is made.
+     * 
+     * @param goal
+     *            the pole of disk d, 1 being the smallest, at index d - 1.
+     * @param moves
+     *            is handed each move in order, or null for none.
+     * @throws IllegalArgumentException
+     *             if the goal is not a configuration of this puzzle.
+     * @throws IllegalStateException
+     *             if the puzzle does not have exactly three poles.
+     */
+    public void solveTo(int[] goal, IntConsumer moves)
+    {
+        if (towers.pegs() != 3)
+        {
+            throw new IllegalStateException(
+                "only supported with three poles, not " + towers.pegs());
+        }
+        int[] start = new int[numDisks];
+        for (int disk = 1; disk <= numDisks; disk++)
+        {
+            start[disk - 1] = towers.pegOf(disk);
+        }
+
+        boolean publish = events.hasSubscribers();
+        solvedMoves = -1;
+        ConfigurationSolver.solve(start, goal, move -> {
+            towers.move(Move.from(move), Move.to(move));
+            movesMade++;
+            if (moves != null)
+            {
+                moves.accept(move);
+            }
+            if (publish)
+            {
+                events.publish(move);
+            }
+        });
+        solvedMoves = HanoiMath.indexOf(numDisks, goal);
+        events.flush();
+    }
+
+
+    /**
+     * Provides a string representation of the puzzle in the same format as
+     * HanoiSolver, listing the disk sizes on the left, middle, and right
+     * poles.
+     * 
+     * @return A combined string of the contents of each pole.
+     */
+    @Override
+    public String toString()
+    {
+        return towers.toString();
+    }
+}
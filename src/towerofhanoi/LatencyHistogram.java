@@ -0,0 +1,175 @@
+package towerofhanoi;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// -------------------------------------------------------------------------
+/**
+ * This class counts latencies in nanoseconds into log-linear buckets, in the
+ * style of an HDR histogram. Every power of two is split into 16 equal
+ * buckets, so any recorded value is known to within about 6% while the whole
+ * range of a long fits in under a thousand counters. Recording is a single
+ * atomic increment and never allocates, so it can be called from several
+ * threads at once on a hot path.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS =
+        (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts;
+
+    /**
+     * Creates an empty histogram.
+     */
+    public LatencyHistogram()
+    {
+        counts = new AtomicLongArray(BUCKETS);
+    }
+
+
+    /**
+     * Counts one latency.
+     * 
+     * @param nanos
+     *            the latency in nanoseconds; negative values count as 0.
+     */
+    public void record(long nanos)
+    {
+        counts.getAndIncrement(bucketOf(Math.max(0, nanos)));
+    }
+
+
+    /**
+     * Returns the number of latencies recorded.
+     * 
+     * @return the number of latencies.
+     */
+    public long count()
+    {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+
+    /**
+     * Finds the latency below which the given share of recorded latencies
+     * fall, to the precision of the buckets.
+     * 
+     * @param percentile
+     *            the percentile, from 0 to 100.
+     * @return the upper end of the bucket holding that percentile, or 0 if
+     *         nothing has been recorded.
+     * @throws IllegalArgumentException
+     *             if the percentile is out of range.
+     */
+    public long valueAtPercentile(double percentile)
+    {
+        if (percentile < 0 || percentile > 100)
+        {
+            throw new IllegalArgumentException("percentile " + percentile);
+        }
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0)
+        {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long)Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += snapshot[i];
+            if (seen >= rank)
+            {
+                return highestValueIn(i);
+            }
+        }
+        return highestValueIn(BUCKETS - 1);
+    }
+
+
+    /**
+     * Finds the largest latency recorded, to the precision of the buckets.
+     * 
+     * @return the upper end of the highest non-empty bucket, or 0.
+     */
+    public long max()
+    {
+        for (int i = BUCKETS - 1; i >= 0; i--)
+        {
+            if (counts.get(i) != 0)
+            {
+                return highestValueIn(i);
+            }
+        }
+        return 0;
+    }
+
+
+    /**
+     * Forgets every latency recorded so far.
+     */
+    public void clear()
+    {
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            counts.set(i, 0);
+        }
+    }
+
+
+    /**
+     * Finds the bucket a value falls in. Values below 16 each get their own
+     * bucket; above that the top four bits after the leading one pick one of
+     * the 16 buckets of its power of two.
+     * 
+     * @param value
+     *            a value of at least 0.
+     * @return the index of its bucket.
+     */
+    private static int bucketOf(long value)
+    {
+        if (value < SUB_BUCKETS)
+        {
+            return (int)value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int sub = (int)(value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+
+    /**
+     * Finds the largest value that falls in a bucket.
+     * 
+     * @param bucket
+     *            the index of the bucket.
+     * @return the largest value it holds.
+     */
+    private static long highestValueIn(int bucket)
+    {
+        if (bucket < SUB_BUCKETS)
+        {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long)(SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -218,6 +218,26 @@ public class LinkedStack<T>
     }
 
 
+    /**
+     * Moves the top entry of this stack onto the top of another stack. The
+     * node is relinked rather than copied, so nothing is allocated. Only
+     * meant for callers that already know this stack is not empty.
+     *
+     * @param other
+     *            The stack to move the top entry onto.
+     */
+    void moveTopTo(LinkedStack<T> other)
+    {
+        Node currentNode = topNode;
+        topNode = currentNode.getNextNode();
+        size--;
+
+        currentNode.setNextNode(other.topNode);
+        other.topNode = currentNode;
+        other.size++;
+    }
+
+
     /**
      * Provides a string representation of the current state of the stack. This
      * method can be especially useful for debugging or for logging purposes. It
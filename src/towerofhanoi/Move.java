@@ -0,0 +1,225 @@
+package towerofhanoi;
+
+// -------------------------------------------------------------------------
+/**
+ * This class represents a single move of the Tower of Hanoi puzzle: one disk
+ * taken off the top of a source pole and placed on a destination pole. Disks
+ * are identified by their size, where 1 is the smallest disk, and poles by
+ * their index, where 0, 1 and 2 are the LEFT, MIDDLE and RIGHT positions. A
+ * move can also be packed into a single int so that long move sequences can
+ * be stored and passed around without creating a Move object for each one.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public final class Move
+{
+    private static final int PEG_BITS = 4;
+    private static final int PEG_MASK = (1 << PEG_BITS) - 1;
+
+    private final int disk;
+    private final int from;
+    private final int to;
+
+    /**
+     * Constructs a new Move of the given disk between two poles.
+     * 
+     * @param disk
+     *            the size of the disk being moved, 1 being the smallest.
+     * @param from
+     *            the index of the pole the disk is taken from.
+     * @param to
+     *            the index of the pole the disk is placed on.
+     */
+    public Move(int disk, int from, int to)
+    {
+        this.disk = disk;
+        this.from = from;
+        this.to = to;
+    }
+
+
+    /**
+     * Retrieves the size of the disk being moved.
+     * 
+     * @return the size of the moved disk, 1 being the smallest.
+     */
+    public int disk()
+    {
+        return disk;
+    }
+
+
+    /**
+     * Retrieves the index of the pole the disk is taken from.
+     * 
+     * @return the index of the source pole.
+     */
+    public int from()
+    {
+        return from;
+    }
+
+
+    /**
+     * Retrieves the index of the pole the disk is placed on.
+     * 
+     * @return the index of the destination pole.
+     */
+    public int to()
+    {
+        return to;
+    }
+
+
+    /**
+     * Retrieves the position the disk is taken from.
+     * 
+     * @return the source position (LEFT, MIDDLE, or RIGHT).
+     */
+    public Position source()
+    {
+        return Position.values()[from];
+    }
+
+
+    /**
+     * Retrieves the position the disk is placed on.
+     * 
+     * @return the destination position (LEFT, MIDDLE, or RIGHT).
+     */
+    public Position destination()
+    {
+        return Position.values()[to];
+    }
+
+
+    /**
+     * Packs this move into a single int.
+     * 
+     * @return the packed form of this move.
+     */
+    public int pack()
+    {
+        return pack(disk, from, to);
+    }
+
+
+    /**
+     * Packs a move into a single int. The destination pole takes the lowest
+     * four bits, the source pole the next four, and the disk size the rest.
+     * 
+     * @param disk
+     *            the size of the disk being moved.
+     * @param from
+     *            the index of the source pole.
+     * @param to
+     *            the index of the destination pole.
+     * @return the packed move.
+     */
+    public static int pack(int disk, int from, int to)
+    {
+        return (disk << (2 * PEG_BITS)) | (from << PEG_BITS) | to;
+    }
+
+
+    /**
+     * Unpacks a move previously created by pack().
+     * 
+     * @param packed
+     *            the packed move.
+     * @return the corresponding Move.
+     */
+    public static Move unpack(int packed)
+    {
+        return new Move(disk(packed), from(packed), to(packed));
+    }
+
+
+    /**
+     * Extracts the disk size from a packed move.
+     * 
+     * @param packed
+     *            the packed move.
+     * @return the size of the moved disk.
+     */
+    public static int disk(int packed)
+    {
+        return packed >>> (2 * PEG_BITS);
+    }
+
+
+    /**
+     * Extracts the source pole from a packed move.
+     * 
+     * @param packed
+     *            the packed move.
+     * @return the index of the source pole.
+     */
+    public static int from(int packed)
+    {
+        return (packed >>> PEG_BITS) & PEG_MASK;
+    }
+
+
+    /**
+     * Extracts the destination pole from a packed move.
+     * 
+     * @param packed
+     *            the packed move.
+     * @return the index of the destination pole.
+     */
+    public static int to(int packed)
+    {
+        return packed & PEG_MASK;
+    }
+
+
+    /**
+     * Provides a string representation of the move, such as "3: 0 -> 2".
+     * 
+     * @return the disk size followed by the source and destination poles.
+     */
+    @Override
+    public String toString()
+    {
+        return disk + ": " + from + " -> " + to;
+    }
+
+
+    /**
+     * Compares this move to another object for equality. Two moves are equal
+     * when they move the same disk between the same poles.
+     * 
+     * @param obj
+     *            The object to be compared for equality with this move.
+     * @return true if the provided object is an equal move; false otherwise.
+     */
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+        {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass())
+        {
+            return false;
+        }
+
+        Move otherMove = (Move)obj;
+        return pack() == otherMove.pack();
+    }
+
+
+    /**
+     * Computes a hash code consistent with equals().
+     * 
+     * @return the hash code of this move.
+     */
+    @Override
+    public int hashCode()
+    {
+        return pack();
+    }
+}
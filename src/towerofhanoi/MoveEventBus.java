@@ -0,0 +1,673 @@
+package towerofhanoi;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// -------------------------------------------------------------------------
+/**
+ * This class delivers the moves made by a solver to its listeners without
+ * taking a lock on the solver's thread. Every listener gets its own single
+ * producer, single consumer ring buffer of packed moves and its own daemon
+ * thread that drains it. Publishing a move is a plain array write followed by
+ * a store of the ring's tail, so a fast listener costs the solver almost
+ * nothing. A slow one only holds it back once its ring is full, and then the
+ * solver parks until the listener has made room rather than spinning; a
+ * listener subscribed to drop moves instead never holds the solver back, and
+ * the moves it missed are counted by dropped(). A drain thread with nothing
+ * to do parks until the next move is published, so an idle listener costs no
+ * CPU at all; close() stops every drain thread. Every subscription still
+ * costs a platform thread and a ring of RING_SIZE ints, 256 KB, for as long
+ * as it lasts.
+ * Listeners can ask for their moves in batches, which lets a slow consumer
+ * such as a PuzzleWindow catch up many moves at a time. If a listener
+ * throws, its drain thread stops and the exception is thrown again to the
+ * solver by the next publish() or flush(), as it would have been had the
+ * listener been called on the solver's thread. The failed listener is
+ * removed as its exception is thrown, so the bus carries on with the rest.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public class MoveEventBus
+{
+    /**
+     * The number of moves each listener's ring buffer can hold, 256 KB of
+     * packed moves
+     */
+    public static final int RING_SIZE = 1 << 16;
+
+    private static final long FLUSH_PARK_NANOS = 50_000;
+
+    private volatile Subscription[] subscriptions = new Subscription[0];
+    private volatile LatencyHistogram latency;
+
+    // ~ private class ........................................................
+    /**
+     * One listener's ring buffer and the thread that drains it. The solver
+     * thread is the only writer of tail and the drain thread the only writer
+     * of head, so neither needs a lock. Before parking, the drain thread
+     * raises the waiting flag and looks at the tail once more; the solver
+     * stores the tail before it looks at the flag, so one of them always
+     * sees the other and a published move never goes unnoticed. A solver
+     * waiting for room in a full ring parks the same way, behind the
+     * producerWaiting flag and the head.
+     * 
+     * @author cooln
+     * @version Oct 16, 2026
+     */
+    private static class Subscription
+        implements Runnable
+    {
+        private final MoveEventBus bus;
+        private final MoveListener listener;
+        private final int[] ring = new int[RING_SIZE];
+        private final int[] batch;
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong tail = new AtomicLong();
+        private final boolean dropWhenFull;
+        private long cachedHead;
+        private volatile long dropped;
+        private volatile boolean running = true;
+        private volatile boolean waiting;
+        private volatile boolean producerWaiting;
+        private volatile Thread producer;
+        private volatile Throwable failure;
+        private final Thread thread;
+
+        /**
+         * Creates a subscription and starts its drain thread.
+         * 
+         * @param bus
+         *            the bus the subscription belongs to.
+         * @param listener
+         *            the listener to deliver moves to.
+         * @param batchSize
+         *            the largest number of moves delivered at once.
+         * @param dropWhenFull
+         *            whether to drop moves rather than wait while the ring
+         *            is full.
+         */
+        public Subscription(
+            MoveEventBus bus,
+            MoveListener listener,
+            int batchSize,
+            boolean dropWhenFull)
+        {
+            this.bus = bus;
+            this.listener = listener;
+            this.batch = new int[batchSize];
+            this.dropWhenFull = dropWhenFull;
+            thread = new Thread(this, "move-listener");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+
+        /**
+         * Adds a move to the ring, parking while the ring is full unless the
+         * subscription drops moves. Only ever called from the publishing
+         * thread. The move is dropped if the subscription stops while
+         * waiting.
+         * 
+         * @param move
+         *            the packed move.
+         */
+        public void offer(int move)
+        {
+            long next = tail.get();
+            if (next - cachedHead == RING_SIZE)
+            {
+                cachedHead = head.get();
+                if (next - cachedHead == RING_SIZE && !awaitRoom(next))
+                {
+                    dropped++;
+                    return;
+                }
+            }
+            ring[(int)next & (RING_SIZE - 1)] = move;
+            tail.set(next + 1);
+            if (waiting)
+            {
+                LockSupport.unpark(thread);
+            }
+        }
+
+
+        /**
+         * Adds a batch of moves to the ring, storing the tail once for as
+         * many moves as there is room for and parking while the ring is
+         * full, unless the subscription drops moves. Only ever called from
+         * the publishing thread. The rest of the batch is dropped if the
+         * subscription stops while waiting.
+         * 
+         * @param moves
+         *            the packed moves.
+         * @param count
+         *            the number of moves in the batch.
+         */
+        public void offer(int[] moves, int count)
+        {
+            int offered = 0;
+            while (offered < count)
+            {
+                long next = tail.get();
+                long free = RING_SIZE - (next - cachedHead);
+                if (free < count - offered)
+                {
+                    cachedHead = head.get();
+                    free = RING_SIZE - (next - cachedHead);
+                }
+                if (free == 0)
+                {
+                    if (!awaitRoom(next))
+                    {
+                        dropped += count - offered;
+                        return;
+                    }
+                    continue;
+                }
+                int chunk = (int)Math.min(free, count - offered);
+                for (int i = 0; i < chunk; i++)
+                {
+                    ring[(int)(next + i) & (RING_SIZE - 1)] =
+                        moves[offered + i];
+                }
+                tail.set(next + chunk);
+                if (waiting)
+                {
+                    LockSupport.unpark(thread);
+                }
+                offered += chunk;
+            }
+        }
+
+
+        /**
+         * Parks the publishing thread until the drain thread has taken a
+         * move out of the full ring. Before parking it raises the
+         * producerWaiting flag and looks at the head once more; the drain
+         * thread stores the head before it looks at the flag, so the room it
+         * makes is never missed.
+         * 
+         * @param next
+         *            the tail of the ring, which the head is a whole ring
+         *            behind.
+         * @return true once there is room, or false without waiting if the
+         *         subscription drops moves or has stopped.
+         */
+        private boolean awaitRoom(long next)
+        {
+            if (dropWhenFull)
+            {
+                return false;
+            }
+            producer = Thread.currentThread();
+            while (next - cachedHead == RING_SIZE)
+            {
+                if (!running)
+                {
+                    return false;
+                }
+                producerWaiting = true;
+                cachedHead = head.get();
+                if (next - cachedHead == RING_SIZE && running)
+                {
+                    LockSupport.park(this);
+                }
+                producerWaiting = false;
+                cachedHead = head.get();
+            }
+            return true;
+        }
+
+
+        /**
+         * Wakes the publishing thread if it is parked on a full ring.
+         */
+        private void wakeProducer()
+        {
+            if (producerWaiting)
+            {
+                LockSupport.unpark(producer);
+            }
+        }
+
+
+        /**
+         * Stops the drain thread, waking it if it is parked, and wakes the
+         * publishing thread if it is waiting for room. Moves still waiting
+         * in the ring are dropped.
+         */
+        public void cancel()
+        {
+            running = false;
+            LockSupport.unpark(thread);
+            wakeProducer();
+        }
+
+
+        /**
+         * Determines whether the listener has thrown.
+         * 
+         * @return true if the subscription stopped on a failure.
+         */
+        public boolean hasFailed()
+        {
+            return failure != null;
+        }
+
+
+        /**
+         * Throws the exception the listener failed with, if it has failed.
+         */
+        public void checkFailure()
+        {
+            Throwable failed = failure;
+            if (failed instanceof RuntimeException)
+            {
+                throw (RuntimeException)failed;
+            }
+            if (failed instanceof Error)
+            {
+                throw (Error)failed;
+            }
+            if (failed != null)
+            {
+                throw new IllegalStateException("listener failed", failed);
+            }
+        }
+
+
+        /**
+         * Determines whether the listener has been handed every move offered
+         * so far.
+         * 
+         * @return true if the ring is empty.
+         */
+        public boolean isDrained()
+        {
+            return head.get() == tail.get();
+        }
+
+
+        /**
+         * Returns the number of moves dropped because the ring was full.
+         * 
+         * @return the number of moves the listener missed.
+         */
+        public long dropped()
+        {
+            return dropped;
+        }
+
+
+        /**
+         * Returns the number of moves waiting in the ring.
+         * 
+         * @return the number of undelivered moves.
+         */
+        public long backlog()
+        {
+            return tail.get() - head.get();
+        }
+
+
+        /**
+         * Drains the ring until the subscription is cancelled or the
+         * listener throws. Anything the listener throws is kept for the
+         * publishing thread and stops the subscription.
+         */
+        @Override
+        public void run()
+        {
+            try
+            {
+                drain();
+            }
+            catch (Throwable thrown)
+            {
+                failure = thrown;
+                running = false;
+                wakeProducer();
+            }
+        }
+
+
+        /**
+         * Hands the moves in the ring to the listener, one at a time or in
+         * batches, until the subscription is cancelled. Each call to the
+         * listener is timed while the bus has a latency histogram.
+         */
+        private void drain()
+        {
+            long next = head.get();
+            while (running)
+            {
+                long available = tail.get() - next;
+                if (available == 0)
+                {
+                    waiting = true;
+                    if (tail.get() == next && running)
+                    {
+                        LockSupport.park(this);
+                    }
+                    waiting = false;
+                    continue;
+                }
+
+                LatencyHistogram timer = bus.latency;
+                long started = 0;
+                if (timer != null)
+                {
+                    started = System.nanoTime();
+                }
+                if (batch.length == 1)
+                {
+                    listener.moveMade(ring[(int)next & (RING_SIZE - 1)]);
+                    next++;
+                }
+                else
+                {
+                    int count = (int)Math.min(available, batch.length);
+                    for (int i = 0; i < count; i++)
+                    {
+                        batch[i] = ring[(int)(next + i) & (RING_SIZE - 1)];
+                    }
+                    listener.movesMade(batch, count);
+                    next += count;
+                }
+                if (timer != null)
+                {
+                    timer.record(System.nanoTime() - started);
+                }
+                head.set(next);
+                wakeProducer();
+            }
+        }
+    }
+
+    /**
+     * Registers a listener that is handed moves one at a time.
+     * 
+     * @param listener
+     *            the listener to add.
+     */
+    public void subscribe(MoveListener listener)
+    {
+        subscribe(listener, 1, false);
+    }
+
+
+    /**
+     * Registers a listener that is handed up to batchSize moves at a time
+     * through MoveListener.movesMade(). Moves are never held back to fill a
+     * batch; whatever is waiting is delivered.
+     * 
+     * @param listener
+     *            the listener to add.
+     * @param batchSize
+     *            the largest number of moves delivered at once.
+     * @throws IllegalArgumentException
+     *             if the listener is null or the batch size is not positive.
+     */
+    public void subscribe(MoveListener listener, int batchSize)
+    {
+        subscribe(listener, batchSize, false);
+    }
+
+
+    /**
+     * Registers a listener that is handed up to batchSize moves at a time,
+     * choosing what happens when it falls a whole ring behind: either the
+     * publisher parks until the listener makes room, so every move arrives,
+     * or the moves that do not fit are dropped, so the listener never holds
+     * the publisher back. A listener that drops moves should not rely on
+     * seeing every one; dropped() counts those it missed.
+     * 
+     * @param listener
+     *            the listener to add.
+     * @param batchSize
+     *            the largest number of moves delivered at once.
+     * @param dropWhenFull
+     *            true to drop moves rather than wait for a full ring.
+     * @throws IllegalArgumentException
+     *             if the listener is null or the batch size is not positive.
+     */
+    public synchronized void subscribe(
+        MoveListener listener,
+        int batchSize,
+        boolean dropWhenFull)
+    {
+        if (listener == null)
+        {
+            throw new IllegalArgumentException("listener is null");
+        }
+        if (batchSize < 1)
+        {
+            throw new IllegalArgumentException("batch size " + batchSize);
+        }
+        Subscription[] current = subscriptions;
+        Subscription[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] =
+            new Subscription(this, listener, batchSize, dropWhenFull);
+        subscriptions = updated;
+    }
+
+
+    /**
+     * Removes a listener. Moves still waiting in its ring are dropped.
+     * 
+     * @param listener
+     *            the listener to remove.
+     */
+    public synchronized void unsubscribe(MoveListener listener)
+    {
+        Subscription[] current = subscriptions;
+        for (int i = 0; i < current.length; i++)
+        {
+            if (current[i].listener == listener)
+            {
+                remove(i);
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * Removes a failed subscription and throws the exception its listener
+     * failed with. Nothing is thrown if it has already been removed, so each
+     * failure is only thrown once.
+     * 
+     * @param subscription
+     *            the failed subscription.
+     */
+    private synchronized void removeFailed(Subscription subscription)
+    {
+        Subscription[] current = subscriptions;
+        for (int i = 0; i < current.length; i++)
+        {
+            if (current[i] == subscription)
+            {
+                remove(i);
+                subscription.checkFailure();
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * Stops the subscription at an index and takes it out of the array.
+     * 
+     * @param i
+     *            the index of the subscription.
+     */
+    private void remove(int i)
+    {
+        Subscription[] current = subscriptions;
+        current[i].cancel();
+        Subscription[] updated = new Subscription[current.length - 1];
+        System.arraycopy(current, 0, updated, 0, i);
+        System.arraycopy(
+            current,
+            i + 1,
+            updated,
+            i,
+            current.length - i - 1);
+        subscriptions = updated;
+    }
+
+
+    /**
+     * Removes every listener and stops their drain threads. Moves still
+     * waiting to be delivered are dropped. The bus can still be subscribed
+     * to afterwards.
+     */
+    public synchronized void close()
+    {
+        for (Subscription subscription : subscriptions)
+        {
+            subscription.cancel();
+        }
+        subscriptions = new Subscription[0];
+    }
+
+
+    /**
+     * Sets the histogram that times every call to a listener. Timing is off
+     * while it is null.
+     * 
+     * @param histogram
+     *            the histogram to record into, or null to stop timing.
+     */
+    public void setLatencyHistogram(LatencyHistogram histogram)
+    {
+        latency = histogram;
+    }
+
+
+    /**
+     * Determines if any listener is registered.
+     * 
+     * @return true if there is at least one listener.
+     */
+    public boolean hasSubscribers()
+    {
+        return subscriptions.length > 0;
+    }
+
+
+    /**
+     * Returns the largest number of moves any listener has yet to receive.
+     * 
+     * @return the deepest backlog across all listeners.
+     */
+    public long backlog()
+    {
+        long deepest = 0;
+        for (Subscription subscription : subscriptions)
+        {
+            deepest = Math.max(deepest, subscription.backlog());
+        }
+        return deepest;
+    }
+
+
+    /**
+     * Returns the number of moves dropped so far, across the listeners that
+     * still subscribe, because their ring was full.
+     * 
+     * @return the total number of moves dropped.
+     */
+    public long dropped()
+    {
+        long total = 0;
+        for (Subscription subscription : subscriptions)
+        {
+            total += subscription.dropped();
+        }
+        return total;
+    }
+
+
+    /**
+     * Hands a move to every listener. Moves must all be published from the
+     * same thread. A listener that has thrown is removed, and its exception
+     * thrown here once; the move has still been handed to every other
+     * listener.
+     * 
+     * @param move
+     *            the packed move, see Move.pack().
+     * @throws RuntimeException
+     *             whatever a listener has thrown since it was subscribed.
+     */
+    public void publish(int move)
+    {
+        Subscription[] current = subscriptions;
+        for (Subscription subscription : current)
+        {
+            subscription.offer(move);
+        }
+        for (Subscription subscription : current)
+        {
+            if (subscription.hasFailed())
+            {
+                removeFailed(subscription);
+            }
+        }
+    }
+
+
+    /**
+     * Hands a batch of consecutive moves to every listener, like publish()
+     * for each in turn but storing each ring's tail once per batch.
+     * 
+     * @param moves
+     *            the packed moves, oldest first.
+     * @param count
+     *            the number of moves in the batch.
+     * @throws RuntimeException
+     *             whatever a listener has thrown since it was subscribed.
+     */
+    public void publish(int[] moves, int count)
+    {
+        Subscription[] current = subscriptions;
+        for (Subscription subscription : current)
+        {
+            subscription.offer(moves, count);
+        }
+        for (Subscription subscription : current)
+        {
+            if (subscription.hasFailed())
+            {
+                removeFailed(subscription);
+            }
+        }
+    }
+
+
+    /**
+     * Waits until every listener has finished handling every move published
+     * so far. A listener that has thrown is removed, and its exception
+     * thrown here once.
+     * 
+     * @throws RuntimeException
+     *             whatever a listener has thrown since it was subscribed.
+     */
+    public void flush()
+    {
+        for (Subscription subscription : subscriptions)
+        {
+            while (!subscription.isDrained() && subscription.running)
+            {
+                LockSupport.parkNanos(FLUSH_PARK_NANOS);
+            }
+            if (subscription.hasFailed())
+            {
+                removeFailed(subscription);
+            }
+        }
+    }
+}
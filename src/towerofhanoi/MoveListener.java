@@ -0,0 +1,42 @@
+package towerofhanoi;
+
+// -------------------------------------------------------------------------
+/**
+ * A listener that is told about the moves made by a HanoiSolver. Moves are
+ * delivered in packed form (see Move.pack()) on a thread owned by the
+ * solver's MoveEventBus, never on the thread doing the solving, and always in
+ * the order they were made. A listener registered with a batch size greater
+ * than one receives them through movesMade(), which by default just hands
+ * each move to moveMade() in turn.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public interface MoveListener
+{
+    /**
+     * Called for each move made by the solver.
+     * 
+     * @param move
+     *            the packed move, see Move.pack().
+     */
+    void moveMade(int move);
+
+
+    /**
+     * Called with a batch of consecutive moves made by the solver. The array
+     * is reused for the next batch, so it must not be kept.
+     * 
+     * @param moves
+     *            the packed moves, oldest first.
+     * @param count
+     *            the number of moves in the batch.
+     */
+    default void movesMade(int[] moves, int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            moveMade(moves[i]);
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package towerofhanoi;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntConsumer;
+
+// -------------------------------------------------------------------------
+/**
+ * This class defines a compact binary format for archiving move sequences.
+ * Between any two poles there is only ever one legal move, the smaller top
+ * disk going onto the other pole, so a move is fully described by which of
+ * the three pairs of poles it used once the towers it was made on are known.
+ * Each move is therefore stored as a two bit pair code, four moves to a byte,
+ * after a fixed size header:
+ * 
+ * <pre>
+ * offset  0  int   magic "HNOI"
+ * offset  4  int   format version
+ * offset  8  int   number of disks
+ * offset 12  int   reserved
+ * offset 16  long  number of moves
+ * offset 24  long  reserved
+ * offset 32        pair codes, move i in bits 2(i % 4) of byte i / 4
+ * </pre>
+ * 
+ * A 30 disk solution, about a billion moves, takes 256 MB. Both the writer
+ * and the reader work through memory mapped windows of the file, so nothing
+ * is copied onto the heap.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public final class MoveLog
+{
+    /**
+     * The first four bytes of every move log
+     */
+    public static final int MAGIC = 0x484E4F49;
+    /**
+     * The version of the format written by this class
+     */
+    public static final int VERSION = 1;
+    /**
+     * The size of the header in bytes
+     */
+    public static final int HEADER_BYTES = 32;
+
+    private static final int MOVES_PER_BYTE = 4;
+    private static final int WINDOW_SHIFT = 26;
+    private static final long WINDOW_BYTES = 1L << WINDOW_SHIFT;
+    private static final int[][] PAIR_PEGS = { { 0, 1 }, { 0, 2 }, { 1, 2 } };
+
+    private MoveLog()
+    {
+        // only the nested Writer and Reader are used
+    }
+
+
+    /**
+     * Computes the pair code of a move between two of the three poles.
+     * 
+     * @param from
+     *            the pole the disk is taken from.
+     * @param to
+     *            the pole the disk is placed on.
+     * @return 0 for poles 0 and 1, 1 for poles 0 and 2, 2 for poles 1 and 2.
+     */
+    public static int pairCode(int from, int to)
+    {
+        return from + to - 1;
+    }
+
+
+    /**
+     * Retrieves the two poles of a pair code.
+     * 
+     * @param code
+     *            the pair code.
+     * @return the two poles, lower first.
+     */
+    public static int[] pairPegs(int code)
+    {
+        return PAIR_PEGS[code].clone();
+    }
+
+
+    /**
+     * Computes the size of a log holding the given number of moves.
+     * 
+     * @param moves
+     *            the number of moves.
+     * @return the size of the file in bytes.
+     */
+    public static long fileSize(long moves)
+    {
+        return HEADER_BYTES + (moves + MOVES_PER_BYTE - 1) / MOVES_PER_BYTE;
+    }
+
+
+    /**
+     * Builds the header of a log.
+     * 
+     * @param numDisks
+     *            the number of disks.
+     * @param moves
+     *            the number of moves in the log.
+     * @return the header, ready to be written.
+     */
+    public static ByteBuffer header(int numDisks, long moves)
+    {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(numDisks);
+        header.putInt(0);
+        header.putLong(moves);
+        header.putLong(0);
+        header.flip();
+        return header;
+    }
+
+    // ~ nested class .........................................................
+    /**
+     * Writes a move log through memory mapped windows of the file. It is a
+     * MoveListener, so it can be registered with a solver to record a solve
+     * as it happens, or fed moves directly with append(). The header is only
+     * written, and the file cut to its exact size, when it is closed.
+     * 
+     * @author cooln
+     * @version Oct 16, 2026
+     */
+    public static class Writer
+        implements MoveListener, Closeable
+    {
+        private final FileChannel channel;
+        private final int numDisks;
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long moves;
+        private int pending;
+
+        /**
+         * Creates a new, empty log, replacing any existing file.
+         * 
+         * @param file
+         *            the file to write.
+         * @param numDisks
+         *            the number of disks of the puzzle being logged.
+         * @throws IOException
+         *             if the file can't be created.
+         */
+        public Writer(Path file, int numDisks)
+            throws IOException
+        {
+            this.channel = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+            this.numDisks = numDisks;
+            this.windowStart = HEADER_BYTES;
+            this.window = channel.map(
+                FileChannel.MapMode.READ_WRITE,
+                windowStart,
+                WINDOW_BYTES);
+        }
+
+
+        /**
+         * Retrieves the number of moves written so far.
+         * 
+         * @return the number of moves.
+         */
+        public long size()
+        {
+            return moves;
+        }
+
+
+        /**
+         * Adds a move to the log.
+         * 
+         * @param from
+         *            the pole the disk was taken from.
+         * @param to
+         *            the pole the disk was placed on.
+         * @throws IOException
+         *             if the next window of the file can't be mapped.
+         */
+        public void append(int from, int to)
+            throws IOException
+        {
+            int slot = (int)(moves & (MOVES_PER_BYTE - 1));
+            pending |= pairCode(from, to) << (2 * slot);
+            moves++;
+            if (slot == MOVES_PER_BYTE - 1)
+            {
+                putPending();
+            }
+        }
+
+
+        /**
+         * Adds a move made by a solver to the log.
+         * 
+         * @param move
+         *            the packed move, see Move.pack().
+         * @throws java.io.UncheckedIOException
+         *             if the next window of the file can't be mapped.
+         */
+        @Override
+        public void moveMade(int move)
+        {
+            try
+            {
+                append(Move.from(move), Move.to(move));
+            }
+            catch (IOException e)
+            {
+                throw new java.io.UncheckedIOException(e);
+            }
+        }
+
+
+        /**
+         * Writes the byte holding the last four moves, mapping the next
+         * window of the file first if the current one is full.
+         * 
+         * @throws IOException
+         *             if the next window can't be mapped.
+         */
+        private void putPending()
+            throws IOException
+        {
+            if (!window.hasRemaining())
+            {
+                windowStart += WINDOW_BYTES;
+                window = channel.map(
+                    FileChannel.MapMode.READ_WRITE,
+                    windowStart,
+                    WINDOW_BYTES);
+            }
+            window.put((byte)pending);
+            pending = 0;
+        }
+
+
+        /**
+         * Writes the last partial byte and the header, cuts the file to its
+         * exact size and closes it.
+         * 
+         * @throws IOException
+         *             if the file can't be written.
+         */
+        @Override
+        public void close()
+            throws IOException
+        {
+            if ((moves & (MOVES_PER_BYTE - 1)) != 0)
+            {
+                putPending();
+            }
+            window.force();
+            channel.write(header(numDisks, moves), 0);
+            channel.truncate(fileSize(moves));
+            channel.close();
+        }
+    }
+
+    // ~ nested class .........................................................
+    /**
+     * Reads a move log through memory mapped windows of the file. Opening a
+     * log only maps it, so it is instant however large the log is, and the
+     * pair code of any move can be read directly by its index.
+     * 
+     * @author cooln
+     * @version Oct 16, 2026
+     */
+    public static class Reader
+        implements Closeable
+    {
+        private final FileChannel channel;
+        private final MappedByteBuffer[] windows;
+        private final int numDisks;
+        private final long moves;
+
+        /**
+         * Opens an existing log.
+         * 
+         * @param file
+         *            the file to read.
+         * @throws IOException
+         *             if the file can't be read or is not a move log.
+         */
+        public Reader(Path file)
+            throws IOException
+        {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0)
+            {
+                // keep reading until the header is complete
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES
+                || header.getInt() != MAGIC || header.getInt() != VERSION)
+            {
+                channel.close();
+                throw new IOException("not a move log: " + file);
+            }
+            numDisks = header.getInt();
+            header.getInt();
+            moves = header.getLong();
+            if (channel.size() < fileSize(moves))
+            {
+                channel.close();
+                throw new IOException("truncated move log: " + file);
+            }
+
+            long bodyBytes = fileSize(moves) - HEADER_BYTES;
+            windows = new MappedByteBuffer[(int)(
+                (bodyBytes + WINDOW_BYTES - 1) / WINDOW_BYTES)];
+            for (int i = 0; i < windows.length; i++)
+            {
+                long start = i * WINDOW_BYTES;
+                windows[i] = channel.map(
+                    FileChannel.MapMode.READ_ONLY,
+                    HEADER_BYTES + start,
+                    Math.min(WINDOW_BYTES, bodyBytes - start));
+                windows[i].order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+
+
+        /**
+         * Retrieves the number of disks of the logged puzzle.
+         * 
+         * @return The number of disks.
+         */
+        public int disks()
+        {
+            return numDisks;
+        }
+
+
+        /**
+         * Retrieves the number of moves in the log.
+         * 
+         * @return the number of moves.
+         */
+        public long size()
+        {
+            return moves;
+        }
+
+
+        /**
+         * Reads the pair code of a move.
+         * 
+         * @param index
+         *            the index of the move, counting from zero.
+         * @return the pair code, see pairCode().
+         * @throws IndexOutOfBoundsException
+         *             if there is no such move.
+         */
+        public int pairAt(long index)
+        {
+            if (index < 0 || index >= moves)
+            {
+                throw new IndexOutOfBoundsException("move " + index);
+            }
+            long offset = index / MOVES_PER_BYTE;
+            int b = windows[(int)(offset / WINDOW_BYTES)]
+                .get((int)(offset % WINDOW_BYTES));
+            return (b >>> (2 * (int)(index % MOVES_PER_BYTE))) & 3;
+        }
+
+
+        /**
+         * Reads the eight bytes holding 32 consecutive pair codes, those of
+         * moves 32 * word to 32 * word + 31, move i in bits 2(i % 32), for
+         * callers that decode many moves in a row. Bytes past the end of the
+         * log read as zero.
+         * 
+         * @param word
+         *            the index of the word in the body of the log.
+         * @return the 32 pair codes.
+         */
+        long pairWord(long word)
+        {
+            long offset = word * Long.BYTES;
+            MappedByteBuffer window =
+                windows[(int)(offset >>> WINDOW_SHIFT)];
+            int position = (int)(offset & (WINDOW_BYTES - 1));
+            if (position + Long.BYTES <= window.limit())
+            {
+                return window.getLong(position);
+            }
+            long value = 0;
+            for (int i = 0; position + i < window.limit(); i++)
+            {
+                value |= (window.get(position + i) & 0xFFL) << (8 * i);
+            }
+            return value;
+        }
+
+
+        /**
+         * Replays part of the log on a set of towers. The towers must be in
+         * the configuration reached just before move from, for example full
+         * on the left pole when from is 0; each pair code is then resolved to
+         * the one legal move between its poles.
+         * 
+         * @param towers
+         *            the towers to make the moves on.
+         * @param from
+         *            the index of the first move to replay.
+         * @param to
+         *            the index just past the last move to replay.
+         * @param listener
+         *            is handed each resolved, packed move, or may be null.
+         * @throws IndexOutOfBoundsException
+         *             if the range is not within the log.
+         * @throws java.util.EmptyStackException
+         *             if a move refers to two empty poles.
+         * @throws IllegalStateException
+         *             if the log holds an unused pair code.
+         */
+        public void replay(
+            BitTowers towers,
+            long from,
+            long to,
+            IntConsumer listener)
+        {
+            if (from < 0 || to > moves || from > to)
+            {
+                throw new IndexOutOfBoundsException(from + ".." + to);
+            }
+            for (long index = from; index < to; index++)
+            {
+                int code = pairAt(index);
+                if (code >= PAIR_PEGS.length)
+                {
+                    throw new IllegalStateException(
+                        "bad pair code at move " + index);
+                }
+                int[] pegs = PAIR_PEGS[code];
+                int move = towers.moveBetween(pegs[0], pegs[1]);
+                if (listener != null)
+                {
+                    listener.accept(move);
+                }
+            }
+        }
+
+
+        /**
+         * Closes the log.
+         * 
+         * @throws IOException
+         *             if the file can't be closed.
+         */
+        @Override
+        public void close()
+            throws IOException
+        {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package towerofhanoi;
+
+// -------------------------------------------------------------------------
+/**
+ * The rules on which poles a disk may move between, on top of the rule that
+ * a disk never goes on a smaller one. Besides the standard puzzle, two
+ * classic variants are modelled on three poles: the adjacent variant, where
+ * a disk may only move between the middle pole and one of its neighbours,
+ * and the cyclic variant, where disks only move clockwise, from LEFT to
+ * MIDDLE, MIDDLE to RIGHT and RIGHT back to LEFT.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public enum MoveRule
+{
+    /**
+     * Any disk may move between any two poles
+     */
+    STANDARD,
+    /**
+     * Disks only move between neighbouring poles
+     */
+    ADJACENT,
+    /**
+     * Disks only move clockwise, LEFT to MIDDLE to RIGHT to LEFT
+     */
+    CYCLIC;
+
+    /**
+     * Checks whether the rule allows a move between two poles.
+     * 
+     * @param from
+     *            the pole the disk is taken from.
+     * @param to
+     *            the pole the disk is placed on.
+     * @return true if the move is allowed.
+     */
+    public boolean allows(int from, int to)
+    {
+        switch (this)
+        {
+            case ADJACENT:
+                return from - to == 1 || to - from == 1;
+            case CYCLIC:
+                return to == (from + 1) % 3;
+            default:
+                return from != to;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package towerofhanoi;
+
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+
+// -------------------------------------------------------------------------
+/**
+ * This class walks a range of the moves of the optimal three pole solution,
+ * as packed moves (see Move.pack()) identifying disks by size. Move m,
+ * counting from 1, is made by disk 1 + (trailing zeros of m), and every disk
+ * always steps around the poles in the same direction (see HanoiMath). Where
+ * each disk starts follows from the index of the first move alone, so
+ * nothing is stored, and splitting hands the lower half of the remaining
+ * index range to a new spliterator. Parallel streams over all 2^n - 1 moves
+ * split evenly across cores without ever materializing them. Walking the
+ * moves in order only tracks the pole of each disk, without dividing the
+ * move counter.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public class MoveSpliterator
+    implements Spliterator.OfInt
+{
+    private static final long MIN_SPLIT = 1 << 10;
+
+    private final int numDisks;
+    private long index;
+    private long end;
+
+    /**
+     * Creates a spliterator over every move of the solution.
+     * 
+     * @param numDisks
+     *            the number of disks.
+     * @throws IllegalArgumentException
+     *             if the number of moves does not fit in a long.
+     */
+    public MoveSpliterator(int numDisks)
+    {
+        this(numDisks, 0, HanoiMath.totalMoves(numDisks));
+    }
+
+
+    /**
+     * Creates a spliterator over a range of the moves of the solution.
+     * 
+     * @param numDisks
+     *            the number of disks.
+     * @param from
+     *            the index of the first move, counting from zero.
+     * @param to
+     *            the index just past the last move.
+     * @throws IllegalArgumentException
+     *             if the number of moves does not fit in a long.
+     * @throws IndexOutOfBoundsException
+     *             if the range is not within the solution.
+     */
+    public MoveSpliterator(int numDisks, long from, long to)
+    {
+        long totalMoves = HanoiMath.totalMoves(numDisks);
+        if (from < 0 || to > totalMoves || from > to)
+        {
+            throw new IndexOutOfBoundsException(from + ".." + to);
+        }
+        this.numDisks = numDisks;
+        this.index = from;
+        this.end = to;
+    }
+
+
+    /**
+     * Hands the next move to an action.
+     * 
+     * @param action
+     *            the action to hand the move to.
+     * @return false if there were no moves left.
+     */
+    @Override
+    public boolean tryAdvance(IntConsumer action)
+    {
+        if (index >= end)
+        {
+            return false;
+        }
+        action.accept(HanoiMath.moveAt(numDisks, index));
+        index++;
+        return true;
+    }
+
+
+    /**
+     * Hands every remaining move to an action, in order. The pole of every
+     * disk is worked out once from the index of the first move; after that
+     * each move only looks up and steps the pole of the disk it moves.
+     * 
+     * @param action
+     *            the action to hand the moves to.
+     */
+    @Override
+    public void forEachRemaining(IntConsumer action)
+    {
+        long last = end;
+        if (index >= last)
+        {
+            return;
+        }
+        int[] pegs = new int[numDisks + 1];
+        int[] steps = new int[numDisks + 1];
+        for (int disk = 1; disk <= numDisks; disk++)
+        {
+            pegs[disk] = HanoiMath.pegOf(numDisks, disk, index);
+            steps[disk] = HanoiMath.step(numDisks, disk);
+        }
+
+        for (long move = index + 1; move <= last; move++)
+        {
+            int disk = Long.numberOfTrailingZeros(move) + 1;
+            int from = pegs[disk];
+            int to = from + steps[disk];
+            if (to >= 3)
+            {
+                to -= 3;
+            }
+            pegs[disk] = to;
+            action.accept(Move.pack(disk, from, to));
+        }
+        index = last;
+    }
+
+
+    /**
+     * Splits off the lower half of the remaining moves, leaving this
+     * spliterator with the upper half. The moves are ordered, so the part
+     * split off has to be the one that comes first.
+     * 
+     * @return a spliterator over the lower half, or null if there are too
+     *         few moves left to be worth splitting.
+     */
+    @Override
+    public MoveSpliterator trySplit()
+    {
+        long remaining = end - index;
+        if (remaining < 2 * MIN_SPLIT)
+        {
+            return null;
+        }
+        long middle = index + remaining / 2;
+        MoveSpliterator lower = new MoveSpliterator(numDisks, index, middle);
+        index = middle;
+        return lower;
+    }
+
+
+    /**
+     * Returns the exact number of moves left.
+     * 
+     * @return the number of moves left.
+     */
+    @Override
+    public long estimateSize()
+    {
+        return end - index;
+    }
+
+
+    /**
+     * Describes the spliterator: it knows its exact size, and so do the
+     * halves it splits into.
+     * 
+     * @return the characteristics.
+     */
+    @Override
+    public int characteristics()
+    {
+        return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+    }
+}
@@ -0,0 +1,566 @@
+package towerofhanoi;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// -------------------------------------------------------------------------
+/**
+ * This class checks move sequences produced elsewhere against the rules of
+ * the three pole puzzle, the same rules Tower.push() enforces, but on a
+ * BitTowers model so no Disk or stack node is ever allocated. A sequence is
+ * replayed from a start configuration until its first illegal move, and the
+ * result tells whether it was legal, whether it reached the goal, and
+ * whether it did so in the fewest possible moves.
+ * 
+ * Sequences can be read from a text file, where each move is a pair of pole
+ * names (0, 1, 2 or L, M, R) and anything but letters and digits between
+ * them is ignored, or from a binary MoveLog. A MoveLog that starts from the
+ * usual configuration can also be validated in parallel chunks, each one
+ * starting from the configuration the optimal solution reaches at that point.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public class MoveValidator
+{
+    private static final long TEXT_WINDOW_BYTES = 1L << 26;
+    private static final long MIN_CHUNK_MOVES = 1L << 20;
+
+    private final int numDisks;
+    private final int[] start;
+    private final int[] goal;
+
+    // ~ nested class .........................................................
+    /**
+     * The outcome of validating one sequence.
+     * 
+     * @author cooln
+     * @version Oct 16, 2026
+     */
+    public static final class Result
+    {
+        private final long moves;
+        private final long firstIllegal;
+        private final boolean reachedGoal;
+        private final boolean optimal;
+
+        /**
+         * Creates a result.
+         * 
+         * @param moves
+         *            the number of moves read.
+         * @param firstIllegal
+         *            the index of the first illegal move, or -1.
+         * @param reachedGoal
+         *            whether the sequence ended on the goal.
+         * @param optimal
+         *            whether it did so in the fewest possible moves.
+         */
+        private Result(
+            long moves,
+            long firstIllegal,
+            boolean reachedGoal,
+            boolean optimal)
+        {
+            this.moves = moves;
+            this.firstIllegal = firstIllegal;
+            this.reachedGoal = reachedGoal;
+            this.optimal = optimal;
+        }
+
+
+        /**
+         * Retrieves the number of moves in the sequence.
+         * 
+         * @return the number of moves.
+         */
+        public long moves()
+        {
+            return moves;
+        }
+
+
+        /**
+         * Retrieves the index of the first illegal move, counting from zero.
+         * 
+         * @return the index, or -1 if every move was legal.
+         */
+        public long firstIllegal()
+        {
+            return firstIllegal;
+        }
+
+
+        /**
+         * Determines whether every move was legal.
+         * 
+         * @return true if there was no illegal move.
+         */
+        public boolean isLegal()
+        {
+            return firstIllegal < 0;
+        }
+
+
+        /**
+         * Determines whether the sequence was legal and ended on the goal.
+         * 
+         * @return true if the goal was reached.
+         */
+        public boolean reachedGoal()
+        {
+            return reachedGoal;
+        }
+
+
+        /**
+         * Determines whether the sequence reached the goal in the fewest
+         * possible moves.
+         * 
+         * @return true if the sequence is an optimal solution.
+         */
+        public boolean isOptimal()
+        {
+            return optimal;
+        }
+
+
+        /**
+         * Describes the result.
+         * 
+         * @return a one line summary.
+         */
+        @Override
+        public String toString()
+        {
+            return "moves " + moves + ", first illegal " + firstIllegal
+                + ", reached goal " + reachedGoal + ", optimal " + optimal;
+        }
+    }
+
+    /**
+     * Creates a validator for sequences that should move every disk from
+     * the left pole to the right pole.
+     * 
+     * @param numDisks
+     *            the number of disks.
+     * @throws IllegalArgumentException
+     *             if there are more disks than a BitTowers can hold.
+     */
+    public MoveValidator(int numDisks)
+    {
+        this(fullTower(numDisks, 0), fullTower(numDisks, 2));
+    }
+
+
+    /**
+     * Creates a validator for sequences between two configurations.
+     * 
+     * @param start
+     *            the pole of disk d, 1 being the smallest, at index d - 1,
+     *            before the first move.
+     * @param goal
+     *            the pole of each disk the sequence should end with.
+     * @throws IllegalArgumentException
+     *             if the configurations are not of the same three pole
+     *             puzzle.
+     */
+    public MoveValidator(int[] start, int[] goal)
+    {
+        if (start.length != goal.length
+            || start.length > BitTowers.MAX_DISKS)
+        {
+            throw new IllegalArgumentException(
+                "configurations of " + start.length + " and " + goal.length
+                    + " disks");
+        }
+        for (int disk = 0; disk < start.length; disk++)
+        {
+            if (start[disk] < 0 || start[disk] > 2 || goal[disk] < 0
+                || goal[disk] > 2)
+            {
+                throw new IllegalArgumentException(
+                    "no such pole for disk " + (disk + 1));
+            }
+        }
+        this.numDisks = start.length;
+        this.start = start.clone();
+        this.goal = goal.clone();
+    }
+
+
+    /**
+     * Validates a text file of moves.
+     * 
+     * @param file
+     *            the file to read.
+     * @return the result.
+     * @throws IOException
+     *             if the file can't be read, or holds a character that is
+     *             not a pole name where a pole is expected.
+     */
+    public Result validateText(Path file)
+        throws IOException
+    {
+        BitTowers towers = towersAt(start);
+        long moves = 0;
+        long firstIllegal = -1;
+        int from = -1;
+        try (FileChannel channel =
+            FileChannel.open(file, StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            for (long position = 0; position < size
+                && firstIllegal < 0; position += TEXT_WINDOW_BYTES)
+            {
+                MappedByteBuffer window = channel.map(
+                    FileChannel.MapMode.READ_ONLY,
+                    position,
+                    Math.min(TEXT_WINDOW_BYTES, size - position));
+                while (window.hasRemaining())
+                {
+                    int c = window.get();
+                    if (!Character.isLetterOrDigit(c))
+                    {
+                        continue;
+                    }
+                    int pole = poleOf(c);
+                    if (pole < 0)
+                    {
+                        throw new IOException(
+                            "not a pole at byte "
+                                + (position + window.position() - 1) + ": "
+                                + (char)c);
+                    }
+                    if (from < 0)
+                    {
+                        from = pole;
+                        continue;
+                    }
+                    if (from == pole || !towers.tryMove(from, pole))
+                    {
+                        firstIllegal = moves;
+                        break;
+                    }
+                    moves++;
+                    from = -1;
+                }
+            }
+        }
+        if (firstIllegal < 0 && from >= 0)
+        {
+            firstIllegal = moves;
+        }
+        if (firstIllegal >= 0)
+        {
+            moves = firstIllegal + 1;
+        }
+        return result(towers, moves, firstIllegal);
+    }
+
+
+    /**
+     * Validates a binary move log, one move after another. A pair code can
+     * only be illegal if it is unused or both of its poles are empty, since
+     * the one legal move between the poles is always the one made.
+     * 
+     * @param log
+     *            the log to read.
+     * @return the result.
+     * @throws IllegalArgumentException
+     *             if the log is for a different number of disks.
+     */
+    public Result validate(MoveLog.Reader log)
+    {
+        checkDisks(log);
+        BitTowers towers = towersAt(start);
+        long firstIllegal = validateRange(towers, log, 0, log.size());
+        return result(towers, log.size(), firstIllegal);
+    }
+
+
+    /**
+     * Validates a binary move log in parallel chunks. Each chunk starts from
+     * the configuration the optimal solution reaches at that point, and the
+     * chunk's result is only trusted once the chunk before it is known to
+     * end on that configuration. If the sequence strays from the optimal
+     * solution, validation carries on one move after another from the last
+     * configuration known to be right, so the result is always the same as
+     * validate() gives.
+     * 
+     * @param log
+     *            the log to read.
+     * @param chunks
+     *            the number of chunks to split the log into.
+     * @return the result.
+     * @throws IllegalArgumentException
+     *             if the log is for a different number of disks, or chunks
+     *             is not positive.
+     */
+    public Result validateParallel(MoveLog.Reader log, int chunks)
+    {
+        checkDisks(log);
+        if (chunks < 1)
+        {
+            throw new IllegalArgumentException("chunks: " + chunks);
+        }
+        long moves = log.size();
+        if (!Arrays.equals(start, fullTower(numDisks, 0))
+            || numDisks > HanoiMath.MAX_DISKS)
+        {
+            return validate(log);
+        }
+
+        long solutionMoves = HanoiMath.totalMoves(numDisks);
+        long chunkMoves =
+            Math.max(MIN_CHUNK_MOVES, (moves + chunks - 1) / chunks);
+        int count = (int)((Math.min(moves, solutionMoves) + chunkMoves - 1)
+            / chunkMoves);
+        BitTowers[] ends = new BitTowers[count];
+        long[] illegal = new long[count];
+
+        IntStream.range(0, count).parallel().forEach(chunk -> {
+            long first = chunk * chunkMoves;
+            long last = Math.min(moves, first + chunkMoves);
+            int[] pegs = new int[numDisks];
+            HanoiMath.pegsAt(numDisks, first, pegs);
+            BitTowers towers = towersAt(pegs);
+            illegal[chunk] = validateRange(towers, log, first, last);
+            ends[chunk] = towers;
+        });
+
+        BitTowers towers = towersAt(start);
+        for (int chunk = 0; chunk < count; chunk++)
+        {
+            if (!onSolution(towers, chunk * chunkMoves))
+            {
+                long firstIllegal =
+                    validateRange(towers, log, chunk * chunkMoves, moves);
+                return result(towers, moves, firstIllegal);
+            }
+            if (illegal[chunk] >= 0)
+            {
+                return result(ends[chunk], moves, illegal[chunk]);
+            }
+            towers = ends[chunk];
+        }
+        long firstIllegal =
+            validateRange(towers, log, count * chunkMoves, moves);
+        return result(towers, moves, firstIllegal);
+    }
+
+
+    /**
+     * Determines whether a configuration is the one the optimal solution
+     * reaches after a given number of moves.
+     * 
+     * @param towers
+     *            the configuration.
+     * @param move
+     *            the number of moves.
+     * @return true if they are the same.
+     */
+    private boolean onSolution(BitTowers towers, long move)
+    {
+        int[] pegs = new int[numDisks];
+        HanoiMath.pegsAt(numDisks, move, pegs);
+        for (int disk = 1; disk <= numDisks; disk++)
+        {
+            if (towers.pegOf(disk) != pegs[disk - 1])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Replays part of a log, stopping at the first illegal move. The only
+     * legal move between two poles takes the smaller of their top disks,
+     * which is the lowest bit set in either mask, so the move is made
+     * without comparisons by flipping that bit in both masks. It is only
+     * illegal when both poles are empty or the pair code is unused. The
+     * masks are kept in locals and written back at the end.
+     * 
+     * @param towers
+     *            the towers to make the moves on.
+     * @param log
+     *            the log to read.
+     * @param first
+     *            the index of the first move.
+     * @param last
+     *            the index just past the last move.
+     * @return the index of the first illegal move, or -1.
+     */
+    private static long validateRange(
+        BitTowers towers,
+        MoveLog.Reader log,
+        long first,
+        long last)
+    {
+        long left = towers.mask(0);
+        long middle = towers.mask(1);
+        long right = towers.mask(2);
+        long index = first;
+        long firstIllegal = -1;
+        while (index < last && firstIllegal < 0)
+        {
+            long codes = log.pairWord(index >>> 5) >>> (2 * (int)(index & 31));
+            long end = Math.min(last, (index | 31) + 1);
+            for (; index < end; index++)
+            {
+                long both;
+                switch ((int)codes & 3)
+                {
+                    case 0:
+                        both = left | middle;
+                        both &= -both;
+                        left ^= both;
+                        middle ^= both;
+                        break;
+                    case 1:
+                        both = left | right;
+                        both &= -both;
+                        left ^= both;
+                        right ^= both;
+                        break;
+                    case 2:
+                        both = middle | right;
+                        both &= -both;
+                        middle ^= both;
+                        right ^= both;
+                        break;
+                    default:
+                        both = 0;
+                        break;
+                }
+                if (both == 0)
+                {
+                    firstIllegal = index;
+                    break;
+                }
+                codes >>>= 2;
+            }
+        }
+        towers.setMasks(new long[] { left, middle, right });
+        return firstIllegal;
+    }
+
+
+    /**
+     * Builds the result of a replay.
+     * 
+     * @param towers
+     *            the towers after the replay.
+     * @param moves
+     *            the number of moves read.
+     * @param firstIllegal
+     *            the index of the first illegal move, or -1.
+     * @return the result.
+     */
+    private Result result(BitTowers towers, long moves, long firstIllegal)
+    {
+        if (firstIllegal >= 0)
+        {
+            return new Result(moves, firstIllegal, false, false);
+        }
+        for (int disk = 1; disk <= numDisks; disk++)
+        {
+            if (towers.pegOf(disk) != goal[disk - 1])
+            {
+                return new Result(moves, -1, false, false);
+            }
+        }
+        long distance = ConfigurationSolver.saturatedDistance(start, goal);
+        boolean optimal = distance != Long.MAX_VALUE && moves == distance;
+        return new Result(moves, -1, true, optimal);
+    }
+
+
+    /**
+     * Checks that a log is for as many disks as the validator.
+     * 
+     * @param log
+     *            the log.
+     */
+    private void checkDisks(MoveLog.Reader log)
+    {
+        if (log.disks() != numDisks)
+        {
+            throw new IllegalArgumentException(
+                "log is for " + log.disks() + " disks, not " + numDisks);
+        }
+    }
+
+
+    /**
+     * Builds towers in a given configuration.
+     * 
+     * @param pegs
+     *            the pole of each disk.
+     * @return the towers.
+     */
+    private BitTowers towersAt(int[] pegs)
+    {
+        BitTowers towers = new BitTowers(numDisks);
+        for (int disk = numDisks; disk >= 1; disk--)
+        {
+            towers.push(pegs[disk - 1], disk);
+        }
+        return towers;
+    }
+
+
+    /**
+     * Builds the configuration with every disk on one pole.
+     * 
+     * @param numDisks
+     *            the number of disks.
+     * @param peg
+     *            the pole.
+     * @return the pole of each disk.
+     */
+    private static int[] fullTower(int numDisks, int peg)
+    {
+        if (numDisks < 0 || numDisks > BitTowers.MAX_DISKS)
+        {
+            throw new IllegalArgumentException(
+                "unsupported number of disks: " + numDisks);
+        }
+        int[] pegs = new int[numDisks];
+        Arrays.fill(pegs, peg);
+        return pegs;
+    }
+
+
+    /**
+     * Reads a pole name.
+     * 
+     * @param c
+     *            the character.
+     * @return the pole, or -1 if it is not a pole name.
+     */
+    private static int poleOf(int c)
+    {
+        switch (Character.toUpperCase(c))
+        {
+            case '0':
+            case 'L':
+                return 0;
+            case '1':
+            case 'M':
+                return 1;
+            case '2':
+            case 'R':
+                return 2;
+            default:
+                return -1;
+        }
+    }
+}
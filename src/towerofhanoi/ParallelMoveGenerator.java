@@ -0,0 +1,257 @@
+package towerofhanoi;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// -------------------------------------------------------------------------
+/**
+ * This class generates the full optimal move sequence in parallel. It follows
+ * the same recursion as HanoiSolver.solveTowers(): moving n disks is moving
+ * n - 1 disks out of the way, one move of the largest disk, and moving the
+ * n - 1 disks back on top. The two halves are independent and their lengths
+ * are known up front (2^(n-1) - 1 moves each), so each one can be handed to a
+ * fork/join task that writes its packed moves straight into its own slice of
+ * a shared array. The result is identical to the sequential order.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public class ParallelMoveGenerator
+{
+    /**
+     * The largest number of disks whose moves fit in a single array
+     */
+    public static final int MAX_DISKS = 30;
+
+    /**
+     * Subproblems with fewer disks than this are always solved sequentially
+     */
+    private static final int MIN_SPLIT_DISKS = 12;
+
+    private ForkJoinPool pool;
+    private int splitDepth;
+
+    /**
+     * Creates a generator that runs on the common pool and splits deep
+     * enough to give every worker several tasks.
+     */
+    public ParallelMoveGenerator()
+    {
+        this(
+            ForkJoinPool.commonPool(),
+            32 - Integer.numberOfLeadingZeros(
+                ForkJoinPool.getCommonPoolParallelism()) + 2);
+    }
+
+
+    /**
+     * Creates a generator that runs on the given pool.
+     * 
+     * @param pool
+     *            the pool to run the tasks on.
+     * @param splitDepth
+     *            how many levels of the recursion are split into separate
+     *            tasks; 0 generates everything sequentially.
+     * @throws IllegalArgumentException
+     *             if the split depth is negative.
+     */
+    public ParallelMoveGenerator(ForkJoinPool pool, int splitDepth)
+    {
+        if (splitDepth < 0)
+        {
+            throw new IllegalArgumentException("split depth " + splitDepth);
+        }
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+    }
+
+
+    /**
+     * Generates every move of the optimal solution from the left pole to the
+     * right pole.
+     * 
+     * @param numDisks
+     *            the number of disks.
+     * @return the packed moves (see Move.pack()), in order.
+     * @throws IllegalArgumentException
+     *             if there are more than MAX_DISKS disks.
+     */
+    public int[] generate(int numDisks)
+    {
+        if (numDisks < 0 || numDisks > MAX_DISKS)
+        {
+            throw new IllegalArgumentException(
+                "unsupported number of disks: " + numDisks);
+        }
+        int[] moves = new int[(1 << numDisks) - 1];
+        generate(numDisks, 0, 1, 2, moves, 0);
+        return moves;
+    }
+
+
+    /**
+     * Generates every move of the optimal solution between two poles into
+     * part of an array.
+     * 
+     * @param numDisks
+     *            the number of disks.
+     * @param startPole
+     *            the pole the disks start on.
+     * @param tempPole
+     *            the pole used for temporary storage.
+     * @param endPole
+     *            the pole the disks end on.
+     * @param moves
+     *            receives the 2^n - 1 packed moves.
+     * @param offset
+     *            where in the array the first move goes.
+     */
+    public void generate(
+        int numDisks,
+        int startPole,
+        int tempPole,
+        int endPole,
+        int[] moves,
+        int offset)
+    {
+        pool.invoke(new SolveTask(
+            numDisks,
+            startPole,
+            tempPole,
+            endPole,
+            moves,
+            offset,
+            0));
+    }
+
+    // ~ private class ........................................................
+    /**
+     * Generates the moves of one subproblem, splitting it into two tasks
+     * while the recursion is shallow enough.
+     * 
+     * @author cooln
+     * @version Oct 16, 2026
+     */
+    private class SolveTask
+        extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int currentDisks;
+        private final int startPole;
+        private final int tempPole;
+        private final int endPole;
+        private final int[] moves;
+        private final int offset;
+        private final int depth;
+
+        /**
+         * Creates a task for one subproblem.
+         * 
+         * @param currentDisks
+         *            the number of disks to move.
+         * @param startPole
+         *            the pole the disks start on.
+         * @param tempPole
+         *            the pole used for temporary storage.
+         * @param endPole
+         *            the pole the disks end on.
+         * @param moves
+         *            the shared output array.
+         * @param offset
+         *            where this subproblem's first move goes.
+         * @param depth
+         *            how many splits led to this task.
+         */
+        public SolveTask(
+            int currentDisks,
+            int startPole,
+            int tempPole,
+            int endPole,
+            int[] moves,
+            int offset,
+            int depth)
+        {
+            this.currentDisks = currentDisks;
+            this.startPole = startPole;
+            this.tempPole = tempPole;
+            this.endPole = endPole;
+            this.moves = moves;
+            this.offset = offset;
+            this.depth = depth;
+        }
+
+
+        /**
+         * Splits the subproblem around the move of its largest disk, or
+         * solves it directly once it is deep or small enough.
+         */
+        @Override
+        protected void compute()
+        {
+            if (depth >= splitDepth || currentDisks < MIN_SPLIT_DISKS)
+            {
+                fill(currentDisks, startPole, tempPole, endPole, moves, offset);
+                return;
+            }
+
+            int half = (1 << (currentDisks - 1)) - 1;
+            moves[offset + half] =
+                Move.pack(currentDisks, startPole, endPole);
+            invokeAll(
+                new SolveTask(
+                    currentDisks - 1,
+                    startPole,
+                    endPole,
+                    tempPole,
+                    moves,
+                    offset,
+                    depth + 1),
+                new SolveTask(
+                    currentDisks - 1,
+                    tempPole,
+                    startPole,
+                    endPole,
+                    moves,
+                    offset + half + 1,
+                    depth + 1));
+        }
+    }
+
+    /**
+     * Sequentially writes the moves of one subproblem, following the same
+     * recursion as HanoiSolver.solveTowers().
+     * 
+     * @param currentDisks
+     *            the number of disks to move.
+     * @param startPole
+     *            the pole the disks start on.
+     * @param tempPole
+     *            the pole used for temporary storage.
+     * @param endPole
+     *            the pole the disks end on.
+     * @param moves
+     *            the output array.
+     * @param offset
+     *            where the first move goes.
+     * @return the index just past the last move written.
+     */
+    private static int fill(
+        int currentDisks,
+        int startPole,
+        int tempPole,
+        int endPole,
+        int[] moves,
+        int offset)
+    {
+        if (currentDisks == 0)
+        {
+            return offset;
+        }
+        offset = fill(currentDisks - 1, startPole, endPole, tempPole, moves,
+            offset);
+        moves[offset] = Move.pack(currentDisks, startPole, endPole);
+        return fill(currentDisks - 1, tempPole, startPole, endPole, moves,
+            offset + 1);
+    }
+}
@@ -1,8 +1,22 @@
 package towerofhanoi;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 // -------------------------------------------------------------------------
 /**
- * Runs the project
+ * Runs the project. With --headless the puzzle is solved without opening a
+ * window, and the move count, elapsed time and final towers are printed.
+ * Adding --checkpoint saves the progress of a headless solve to a file, and
+ * running the same command again resumes from it. With --batch a whole file
+ * of instances is solved headless by a BatchRunner, streaming one line of
+ * JSON per instance to standard output or the --out file. With --serve the
+ * solutions are served over HTTP on a local port by a SolveServer.
  * 
  * @author cooln
  * @version Oct 12, 2023
@@ -10,20 +24,178 @@ package towerofhanoi;
 public class ProjectRunner
 {
     /**
-     * Place a description of your method here.
+     * Opens a puzzle window, solves the puzzle headless when there is a
+     * --headless argument, runs a batch of instances, or serves solutions
+     * over HTTP. The last argument, if any, is the number of disks.
      * 
      * @param args
+     *            [--headless [--checkpoint file]] [disks], or
+     *            --batch file [--out file] [--parallel n], or --serve port
+     * @throws IOException
+     *             if a checkpoint, instance list or output can't be read or
+     *             written, or the port can't be bound.
+     * @throws InterruptedException
+     *             if interrupted while running a batch.
      */
     public static void main(String[] args)
+        throws IOException,
+        InterruptedException
     {
         int disks = 6;
+        boolean headless = false;
+        Path checkpoint = null;
+        Path batch = null;
+        Path out = null;
+        int parallel = Runtime.getRuntime().availableProcessors();
+        int port = -1;
+
+        for (int i = 0; i < args.length; i++)
+        {
+            if (args[i].equals("--headless"))
+            {
+                headless = true;
+            }
+            else if (args[i].equals("--checkpoint") && i + 1 < args.length)
+            {
+                i++;
+                checkpoint = Paths.get(args[i]);
+            }
+            else if (args[i].equals("--batch") && i + 1 < args.length)
+            {
+                i++;
+                batch = Paths.get(args[i]);
+            }
+            else if (args[i].equals("--out") && i + 1 < args.length)
+            {
+                i++;
+                out = Paths.get(args[i]);
+            }
+            else if (args[i].equals("--parallel") && i + 1 < args.length)
+            {
+                i++;
+                parallel = Integer.parseInt(args[i]);
+            }
+            else if (args[i].equals("--serve") && i + 1 < args.length)
+            {
+                i++;
+                port = Integer.parseInt(args[i]);
+            }
+            else
+            {
+                disks = Integer.parseInt(args[i]);
+            }
+        }
 
-        if (args.length == 1)
+        if (port >= 0)
+        {
+            SolveServer server = new SolveServer(port);
+            server.start();
+            System.out.println(
+                "serving on http://localhost:" + server.port() + "/");
+        }
+        else if (batch != null)
         {
-            disks = Integer.parseInt(args[0]);
+            runBatch(batch, out, parallel);
         }
+        else if (headless)
+        {
+            solveHeadless(disks, checkpoint);
+        }
+        else
+        {
+            openWindow(disks);
+        }
+    }
 
+
+    /**
+     * Opens a window showing a puzzle with the given number of disks.
+     * 
+     * @param disks
+     *            the number of disks.
+     */
+    private static void openWindow(int disks)
+    {
         HanoiSolver solver = new HanoiSolver(disks);
-        PuzzleWindow projectWindow = new PuzzleWindow(solver);
+        new PuzzleWindow(solver);
+    }
+
+
+    /**
+     * Solves a puzzle with the given number of disks without loading any of
+     * the graphical classes, and prints the result. If the checkpoint file
+     * already exists the solve carries on from it instead of starting over.
+     * 
+     * @param disks
+     *            the number of disks.
+     * @param checkpoint
+     *            the file to save progress to, or null for none.
+     * @throws IOException
+     *             if the checkpoint can't be read or written.
+     */
+    private static void solveHeadless(int disks, Path checkpoint)
+        throws IOException
+    {
+        HeadlessSolver solver;
+        if (checkpoint != null && Files.exists(checkpoint))
+        {
+            solver = HeadlessSolver.resume(checkpoint);
+            System.out.println("resumed at move " + solver.movesMade());
+        }
+        else
+        {
+            solver = new HeadlessSolver(disks);
+        }
+
+        long start = System.nanoTime();
+        if (checkpoint == null)
+        {
+            solver.solve();
+        }
+        else
+        {
+            solver.solve(checkpoint);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println("moves: " + solver.movesMade());
+        System.out.println("elapsed: " + elapsed / 1_000_000 + " ms");
+        System.out.println(solver);
+    }
+
+
+    /**
+     * Solves every instance listed in a file and streams the results.
+     * 
+     * @param instances
+     *            the file listing the instances.
+     * @param out
+     *            the file to write the results to, or null for standard
+     *            output.
+     * @param parallel
+     *            the largest number of instances solving at once.
+     * @throws IOException
+     *             if the instances can't be read or the results written.
+     * @throws InterruptedException
+     *             if interrupted while the batch is running.
+     */
+    private static void runBatch(Path instances, Path out, int parallel)
+        throws IOException,
+        InterruptedException
+    {
+        BatchRunner runner = new BatchRunner(parallel);
+        if (out == null)
+        {
+            Writer writer = new BufferedWriter(
+                new OutputStreamWriter(System.out));
+            runner.run(instances, writer);
+        }
+        else
+        {
+            try (Writer writer = Files.newBufferedWriter(out))
+            {
+                runner.run(instances, writer);
+            }
+        }
     }
 }
@@ -6,24 +6,88 @@ import cs2.Window;
 import cs2.WindowSide;
 
 import java.awt.*;
-import java.util.Observable;
-import java.util.Observer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JSlider;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
 
 /**
- * The main front-end work and the view for the Tower of Hanoi puzzle
+ * The main front-end work and the view for the Tower of Hanoi puzzle. The
+ * solver runs at full speed and only counts its moves here; a separate render
+ * loop keeps its own index of the moves it has shown, computes the next few
+ * straight from the solution with moveAt() every frame, never passing the
+ * solver, and then moves each affected disk straight to where it ended up.
+ * The animation speed never holds back the solver, no moves are queued, and
+ * no move is skipped unless the view is told to skip to the end, which shows
+ * the latest position at once.
+ *
+ * Disks are scaled to fit the panel and colored from a shared palette. When
+ * there are more disks than the poles are pixels tall, the view switches to
+ * banded rendering: each pole is drawn as a fixed set of one pixel bands,
+ * each standing for a few consecutive disks on that pole and drawn as the
+ * largest of them, so hundreds of disks open instantly and only the bands a
+ * move touched are redrawn.
+ *
+ * A small scrub window beside it has a slider and a jump-to-move field that
+ * show any point of the solution at once. A SnapshotIndex restores the
+ * nearest snapshot and replays the few moves after it headlessly, and every
+ * disk is then redrawn in a single frame. The cs2 Window only takes buttons,
+ * so the scrub controls are plain Swing. Seeking detaches the view from a
+ * solve in progress, which carries on without being shown until Follow Live
+ * is pressed or the next solve starts; the view then jumps to the solver's
+ * latest position and animates from there. The index always covers the
+ * solution under the rule being solved, and is rebuilt if the rule has
+ * changed by the time Solve is clicked.
  *
  * @author cooln
  * @version Oct 8, 2023
  */
 public class PuzzleWindow
-    implements Observer
+    implements MoveListener
 {
 
     private HanoiSolver game;
     private Shape left;
     private Shape middle;
     private Shape right;
+    private Shape[] poles;
     private Window window;
+    private Disk[] disks;
+    private int[] diskWidths;
+    private int diskHeight;
+    private int[] towerSizes;
+    private int[] diskPegs;
+    private int[] diskSlots;
+    private int[][] stacks;
+    private boolean[] dirty;
+    private int[] dirtyItems;
+    private int dirtyCount;
+    private Shape[][] bands;
+    private int disksPerBand;
+    private int bandHeight;
+    private int[] latestPegs;
+    private long solvedMoves;
+    private long shownMoves;
+    private volatile MoveRule solveRule;
+    private BigMoveQuery bigMoves;
+    private long[] bigIndex;
+    private volatile int movesPerFrame;
+    private volatile MoveRule scrubRule;
+    private volatile long scrubMoves;
+    private volatile SnapshotIndex snapshotIndex;
+    private BitTowers scrubTowers;
+    private AtomicLong seekTarget;
+    private volatile boolean followPending;
+    private boolean detached;
+    private JSlider scrubSlider;
+    // only touched on the Swing thread
+    private boolean resizingSlider;
+    private JLabel scrubLabel;
+    private JTextField jumpField;
 
     /**
      * A factor in which the width of the disks are multiplied by
@@ -37,6 +101,38 @@ public class PuzzleWindow
      * The height of each disk on the tower
      */
     public static final int DISK_HEIGHT = 15;
+    /**
+     * The time between two frames of the animation, in milliseconds
+     */
+    public static final int FRAME_MILLIS = 40;
+    /**
+     * The number of moves per frame that shows the final position right away
+     */
+    public static final int SKIP_TO_END = Integer.MAX_VALUE;
+    /**
+     * The number of moves shown per frame when the window opens
+     */
+    public static final int DEFAULT_MOVES_PER_FRAME = 1;
+    /**
+     * The largest number of moves the solver hands over at once
+     */
+    private static final int MOVE_BATCH = 4096;
+    /**
+     * The width of each pole
+     */
+    private static final int POLE_WIDTH = 15;
+    /**
+     * The space kept free around the widest disk
+     */
+    private static final int DISK_MARGIN = 10;
+    /**
+     * The most moves a seek may replay; longer solutions can't be scrubbed
+     */
+    private static final long MAX_SCRUB_INTERVAL = 1 << 16;
+    /**
+     * The colors given to the disks in turn, shared by every window
+     */
+    private static final Color[] PALETTE = createPalette(24);
 
     /**
      * Creates a new PuzzleWindow view for a given HanoiSolver game
@@ -47,125 +143,740 @@ public class PuzzleWindow
     public PuzzleWindow(HanoiSolver g)
     {
         this.game = g;
-        game.addObserver(this);
+        int numDisks = game.disks();
+        towerSizes = new int[3];
+        diskPegs = new int[numDisks + 1];
+        diskSlots = new int[numDisks + 1];
+        stacks = new int[3][numDisks];
+        latestPegs = new int[numDisks + 1];
+        solveRule = game.moveRule();
+        if (numDisks > HanoiMath.MAX_DISKS
+            && numDisks <= BigMoveQuery.MAX_DISKS)
+        {
+            bigMoves = new BigMoveQuery(numDisks);
+            bigIndex = new long[bigMoves.words()];
+        }
+        movesPerFrame = DEFAULT_MOVES_PER_FRAME;
+        seekTarget = new AtomicLong(-1);
         window = new Window();
         window.setSize(1000, 500);
         window.setTitle("Tower of Hanoi");
 
         // The height and Y location of each pole are the same
-        int poleHeight = 400;
+        int poleHeight = Math.min(400, window.getGraphPanelHeight() - 20);
         int poleY = (window.getGraphPanelHeight() / 2) - (poleHeight / 2);
         left = new Shape(
-            (200 - 15 / 2),
+            (200 - POLE_WIDTH / 2),
             poleY,
-            15,
+            POLE_WIDTH,
             poleHeight,
             new Color(50, 50, 50));
         middle = new Shape(
-            ((window.getGraphPanelWidth() / 2) - 15 / 2),
+            ((window.getGraphPanelWidth() / 2) - POLE_WIDTH / 2),
             poleY,
-            15,
+            POLE_WIDTH,
             poleHeight,
             new Color(50, 50, 50));
         right = new Shape(
-            ((window.getGraphPanelWidth() - 200) - 15 / 2),
+            ((window.getGraphPanelWidth() - 200) - POLE_WIDTH / 2),
             poleY,
-            15,
+            POLE_WIDTH,
             poleHeight,
             new Color(50, 50, 50));
+        poles = new Shape[] { left, middle, right };
 
         Button quitButton = new Button("Solve");
         quitButton.onClick(this, "clickedSolve");
         window.addButton(quitButton, WindowSide.NORTH);
 
+        Button slowerButton = new Button("Slower");
+        slowerButton.onClick(this, "clickedSlower");
+        window.addButton(slowerButton, WindowSide.NORTH);
+
+        Button fasterButton = new Button("Faster");
+        fasterButton.onClick(this, "clickedFaster");
+        window.addButton(fasterButton, WindowSide.NORTH);
+
+        Button skipButton = new Button("Skip to End");
+        skipButton.onClick(this, "clickedSkip");
+        window.addButton(skipButton, WindowSide.NORTH);
+
         window.addShape(left);
         window.addShape(middle);
         window.addShape(right);
 
-        for (int width =
-            (game.disks() + 1) * WIDTH_FACTOR; width > WIDTH_FACTOR; width -=
-                WIDTH_FACTOR)
+        // The widest disk must fit between two poles, and the stack of all
+        // disks must fit on one
+        int spacing = middle.getX() - left.getX();
+        double unit = Math.min(
+            WIDTH_FACTOR,
+            (spacing - DISK_MARGIN) / (double)(numDisks + 1));
+        diskWidths = new int[numDisks + 1];
+        for (int size = 1; size <= numDisks; size++)
         {
+            diskWidths[size] = Math.max(1, (int)((size + 1) * unit));
+        }
+        diskHeight = Math.min(DISK_HEIGHT, poleHeight / Math.max(1, numDisks));
 
-            Disk newDisk = new Disk(width);
+        disks = new Disk[numDisks + 1];
+        for (int size = numDisks; size >= 1; size--)
+        {
+            Disk newDisk = new Disk(
+                size,
+                diskWidths[size],
+                Math.max(1, diskHeight),
+                colorOf(size));
             game.getTower(Position.LEFT).push(newDisk);
-            window.addShape(newDisk);
-
-            newDisk.setX(
-                (left.getWidth() / 2 + left.getX()) - newDisk.getWidth() / 2);
-            newDisk.setY(
-                left.getY() + left.getHeight()
-                    - (DISK_HEIGHT * game.getTower(Position.LEFT).size()));
+            disks[size] = newDisk;
+            diskPegs[size] = Position.LEFT.ordinal();
+            latestPegs[size] = Position.LEFT.ordinal();
+            diskSlots[size] = towerSizes[Position.LEFT.ordinal()];
+            stacks[Position.LEFT.ordinal()][diskSlots[size]] = size;
+            towerSizes[Position.LEFT.ordinal()]++;
+        }
 
+        if (diskHeight >= 1)
+        {
+            dirty = new boolean[numDisks + 1];
+            dirtyItems = new int[numDisks + 1];
+            for (int size = numDisks; size >= 1; size--)
+            {
+                window.addShape(disks[size]);
+                placeDisk(size);
+            }
+        }
+        else
+        {
+            createBands(poleHeight);
         }
 
         window.moveToBack(left);
         window.moveToBack(middle);
         window.moveToBack(right);
 
+        game.addMoveListener(this, MOVE_BATCH);
+
+        scrubMoves = -1;
+        indexSolution(solveRule);
+
+        Thread renderer = new Thread() {
+            public void run()
+            {
+                while (true)
+                {
+                    renderFrame();
+                    PuzzleWindow.this.sleep();
+                }
+            }
+        };
+        renderer.setDaemon(true);
+        renderer.start();
+    }
+
+
+    /**
+     * Builds the palette the disks are colored from, evenly spaced hues.
+     *
+     * @param colors
+     *            the number of colors.
+     * @return the palette.
+     */
+    private static Color[] createPalette(int colors)
+    {
+        Color[] palette = new Color[colors];
+        for (int i = 0; i < colors; i++)
+        {
+            palette[i] = Color.getHSBColor(i / (float)colors, 0.6f, 0.9f);
+        }
+        return palette;
     }
 
 
     /**
-     * updates the front-end after the back-end has been changed.
-     * 
-     * @param position
-     *            is to be able to peek at the disk that was moved in order to
-     *            update the information for the display
+     * Picks the color of a disk from the palette.
+     *
+     * @param size
+     *            the size of the disk
+     * @return its color
      */
-    private void moveDisk(Position position)
+    private static Color colorOf(int size)
     {
+        return PALETTE[(size - 1) % PALETTE.length];
+    }
 
-        Disk currentDisk = game.getTower(position).peek();
-        Shape currentPole;
 
-        if (position == Position.LEFT)
+    /**
+     * Sets up banded rendering, used when the disks would be less than a
+     * pixel tall. Every pole gets as many bands as it is pixels tall, or
+     * fewer, each standing for the same number of consecutive stack slots.
+     *
+     * @param poleHeight
+     *            the height of the poles in pixels
+     */
+    private void createBands(int poleHeight)
+    {
+        int numDisks = game.disks();
+        disksPerBand = (numDisks + poleHeight - 1) / poleHeight;
+        int bandCount = (numDisks + disksPerBand - 1) / disksPerBand;
+        bandHeight = Math.max(1, poleHeight / bandCount);
+
+        bands = new Shape[3][bandCount];
+        dirty = new boolean[3 * bandCount];
+        dirtyItems = new int[3 * bandCount];
+        for (int peg = 0; peg < 3; peg++)
         {
-            currentPole = left;
+            Shape pole = poles[peg];
+            for (int band = 0; band < bandCount; band++)
+            {
+                bands[peg][band] = new Shape(
+                    pole.getX() + pole.getWidth() / 2,
+                    pole.getY() + pole.getHeight() - (band + 1) * bandHeight,
+                    0,
+                    bandHeight,
+                    PALETTE[0]);
+                window.addShape(bands[peg][band]);
+                drawBand(peg, band);
+            }
         }
-        else if (position == Position.MIDDLE)
+    }
+
+
+    /**
+     * Builds the snapshot index of the solution under a move rule on a thread
+     * of its own, and opens or updates the scrub window to match; seeks wait
+     * for the index. If the solution under the rule is too long to scrub,
+     * the scrub controls are disabled instead.
+     *
+     * @param rule
+     *            the rule the solution is solved under
+     */
+    private void indexSolution(MoveRule rule)
+    {
+        int numDisks = game.disks();
+        snapshotIndex = null;
+        scrubRule = rule;
+        if (numDisks > RestrictedSolver.maxDisks(rule)
+            || SnapshotIndex.interval(
+                numDisks,
+                rule,
+                SnapshotIndex.DEFAULT_BUDGET_BYTES) > MAX_SCRUB_INTERVAL)
+        {
+            scrubMoves = -1;
+            if (scrubSlider != null)
+            {
+                SwingUtilities.invokeLater(() -> {
+                    scrubSlider.setEnabled(false);
+                    jumpField.setEnabled(false);
+                });
+            }
+            return;
+        }
+        scrubMoves = RestrictedSolver.moves(rule, numDisks);
+
+        Thread indexer = new Thread() {
+            public void run()
+            {
+                SnapshotIndex index = new SnapshotIndex(
+                    numDisks,
+                    rule,
+                    SnapshotIndex.DEFAULT_BUDGET_BYTES);
+                if (scrubRule == rule)
+                {
+                    snapshotIndex = index;
+                }
+            }
+        };
+        indexer.setDaemon(true);
+        indexer.start();
+
+        if (scrubSlider == null)
         {
-            currentPole = middle;
+            createScrubControls();
         }
         else
         {
-            currentPole = right;
+            long moves = scrubMoves;
+            SwingUtilities.invokeLater(() -> {
+                resizingSlider = true;
+                scrubSlider.setMaximum(sliderSteps(moves));
+                resizingSlider = false;
+                scrubSlider.setEnabled(true);
+                jumpField.setEnabled(true);
+                scrubLabel.setText("Move (0 to " + moves + "):");
+            });
         }
+    }
+
+
+    /**
+     * Computes how many steps the slider has for a solution, one per move
+     * unless there are more moves than an int can count.
+     *
+     * @param moves
+     *            the number of moves in the solution
+     * @return the number of steps
+     */
+    private static int sliderSteps(long moves)
+    {
+        return (int)Math.min(moves, Integer.MAX_VALUE);
+    }
+
+
+    /**
+     * Opens the scrub window: a slider over the whole solution, a field
+     * taking the number of a move to jump to, and a button that goes back to
+     * following the solve.
+     */
+    private void createScrubControls()
+    {
+        long moves = scrubMoves;
+        JSlider slider = new JSlider(0, sliderSteps(moves), 0);
+        scrubSlider = slider;
+        jumpField = new JTextField(12);
+        scrubLabel = new JLabel("Move (0 to " + moves + "):");
+        JButton followButton = new JButton("Follow Live");
+
+        slider.addChangeListener(event -> {
+            if (resizingSlider)
+            {
+                return;
+            }
+            long total = scrubMoves;
+            long move = slider.getValue();
+            if (slider.getMaximum() != total)
+            {
+                move = (long)(move * ((double)total / slider.getMaximum()));
+            }
+            move = Math.min(move, total);
+            jumpField.setText(Long.toString(move));
+            seek(move);
+        });
+        jumpField.addActionListener(event -> {
+            try
+            {
+                seek(Long.parseLong(jumpField.getText().trim()));
+            }
+            catch (IllegalArgumentException | IndexOutOfBoundsException e)
+            {
+                Toolkit.getDefaultToolkit().beep();
+            }
+        });
+
+        followButton.addActionListener(event -> follow());
+
+        JFrame frame = new JFrame("Scrub");
+        frame.setLayout(new FlowLayout());
+        frame.add(slider);
+        frame.add(scrubLabel);
+        frame.add(jumpField);
+        frame.add(followButton);
+        frame.pack();
+        frame.setVisible(true);
+    }
+
+
+    /**
+     * Shows the puzzle as it is after the first k moves of the solution,
+     * from the next frame on. The view stops following any solve in
+     * progress until follow() is called.
+     *
+     * @param k
+     *            the number of moves made, from 0 to the number of moves in
+     *            the solution.
+     * @throws IndexOutOfBoundsException
+     *             if k is out of range.
+     * @throws IllegalStateException
+     *             if the puzzle has too many disks to scrub.
+     */
+    public void seek(long k)
+    {
+        long total = scrubMoves;
+        if (total < 0)
+        {
+            throw new IllegalStateException("too many disks to scrub");
+        }
+        if (k < 0 || k > total)
+        {
+            throw new IndexOutOfBoundsException("move " + k);
+        }
+        seekTarget.set(k);
+    }
+
+
+    /**
+     * Makes the view follow the solver again after a seek, from the next
+     * frame on: it jumps to the latest position the solver has reached and
+     * animates from there. Any seek not yet shown is dropped.
+     */
+    public void follow()
+    {
+        seekTarget.set(-1);
+        followPending = true;
+    }
+
+
+    /**
+     * Shows the latest position the solver has reached and carries on
+     * animating the solve from there.
+     */
+    private void attach()
+    {
+        int[] latest;
+        long solved;
+        synchronized (latestPegs)
+        {
+            solved = solvedMoves;
+            latest = latestPegs.clone();
+        }
+        showConfiguration(latest);
+        shownMoves = solved;
+        detached = false;
+    }
+
+
+    /**
+     * Sets the view's record of the towers to the configuration after k
+     * moves of the solution and detaches the view from any solve.
+     *
+     * @param index
+     *            the snapshot index of the solution
+     * @param k
+     *            the number of moves made
+     */
+    private void showMove(SnapshotIndex index, long k)
+    {
+        int numDisks = game.disks();
+        if (scrubTowers == null)
+        {
+            scrubTowers = new BitTowers(numDisks);
+        }
+        index.seek(k, scrubTowers);
+
+        int[] pegs = new int[numDisks + 1];
+        for (int peg = 0; peg < 3; peg++)
+        {
+            long mask = scrubTowers.mask(peg);
+            while (mask != 0)
+            {
+                int disk = Long.numberOfTrailingZeros(mask) + 1;
+                mask &= mask - 1;
+                pegs[disk] = peg;
+            }
+        }
+        detached = true;
+        showConfiguration(pegs);
+    }
+
+
+    /**
+     * Sets the view's record of the towers to a whole configuration and marks
+     * every disk, or every band, to be redrawn.
+     *
+     * @param pegs
+     *            the pole of each disk, indexed by size
+     */
+    private void showConfiguration(int[] pegs)
+    {
+        int numDisks = game.disks();
+        Arrays.fill(towerSizes, 0);
+        for (int disk = numDisks; disk >= 1; disk--)
+        {
+            int peg = pegs[disk];
+            diskPegs[disk] = peg;
+            diskSlots[disk] = towerSizes[peg];
+            stacks[peg][towerSizes[peg]] = disk;
+            towerSizes[peg]++;
+        }
+
+        if (bands == null)
+        {
+            for (int disk = 1; disk <= numDisks; disk++)
+            {
+                markDirty(disk);
+            }
+        }
+        else
+        {
+            for (int item = 0; item < dirty.length; item++)
+            {
+                markDirty(item);
+            }
+        }
+    }
+
+
+    /**
+     * Sets how many moves are shown per frame of the animation. SKIP_TO_END
+     * shows the latest position at once.
+     *
+     * @param moves
+     *            the number of moves per frame, at least 1
+     * @throws IllegalArgumentException
+     *             if moves is less than 1
+     */
+    public void setMovesPerFrame(int moves)
+    {
+        if (moves < 1)
+        {
+            throw new IllegalArgumentException("moves per frame: " + moves);
+        }
+        movesPerFrame = moves;
+    }
+
+
+    /**
+     * Retrieves how many moves are shown per frame of the animation.
+     *
+     * @return the number of moves per frame
+     */
+    public int getMovesPerFrame()
+    {
+        return movesPerFrame;
+    }
+
+
+    /**
+     * Applies the next movesPerFrame moves of the solution, or as many as the
+     * solver has made, to the view's own record of where each disk is, then
+     * redraws every disk or band that changed. A disk that moved several
+     * times in one frame is only redrawn once. At SKIP_TO_END the latest
+     * position is shown instead. A requested seek is shown once the snapshot
+     * index is ready, and after the view has been detached by one, the
+     * solve is only followed again once follow() has been called.
+     */
+    private void renderFrame()
+    {
+        if (followPending)
+        {
+            followPending = false;
+            if (detached)
+            {
+                attach();
+            }
+        }
+        SnapshotIndex index = snapshotIndex;
+        if (index != null)
+        {
+            long target = seekTarget.getAndSet(-1);
+            if (target >= 0 && target <= index.moves())
+            {
+                showMove(index, target);
+            }
+        }
+        if (!detached)
+        {
+            int budget = movesPerFrame;
+            long solved;
+            int[] latest = null;
+            synchronized (latestPegs)
+            {
+                solved = solvedMoves;
+                if (budget == SKIP_TO_END && solved > shownMoves)
+                {
+                    latest = latestPegs.clone();
+                }
+            }
+            if (latest != null)
+            {
+                showConfiguration(latest);
+                shownMoves = solved;
+            }
+            long end = Math.min(solved, shownMoves + budget);
+            while (shownMoves < end)
+            {
+                applyMove(solutionMove(shownMoves));
+                shownMoves++;
+            }
+        }
+
+        for (int i = 0; i < dirtyCount; i++)
+        {
+            int item = dirtyItems[i];
+            if (bands == null)
+            {
+                placeDisk(item);
+            }
+            else
+            {
+                drawBand(item / bands[0].length, item % bands[0].length);
+            }
+            dirty[item] = false;
+        }
+        dirtyCount = 0;
+    }
+
+
+    /**
+     * Records a move in the view's own record of the towers. The solver has
+     * usually moved on by the time a move gets here, so the towers of the game
+     * can't be used to find where the disk landed.
+     *
+     * @param move
+     *            is the packed move that was made, whose disk is identified by
+     *            its size
+     */
+    private void applyMove(int move)
+    {
+        int disk = Move.disk(move);
+        int from = Move.from(move);
+        int to = Move.to(move);
+
+        towerSizes[from]--;
+        diskPegs[disk] = to;
+        diskSlots[disk] = towerSizes[to];
+        stacks[to][towerSizes[to]] = disk;
+        towerSizes[to]++;
+
+        if (bands == null)
+        {
+            markDirty(disk);
+        }
+        else
+        {
+            int bandCount = bands[0].length;
+            markDirty(from * bandCount + towerSizes[from] / disksPerBand);
+            markDirty(to * bandCount + diskSlots[disk] / disksPerBand);
+        }
+    }
+
+
+    /**
+     * Adds a disk, or a band when banded, to the ones redrawn this frame.
+     *
+     * @param item
+     *            is the size of the disk, or the pole times the number of
+     *            bands per pole plus the band
+     */
+    private void markDirty(int item)
+    {
+        if (!dirty[item])
+        {
+            dirty[item] = true;
+            dirtyItems[dirtyCount] = item;
+            dirtyCount++;
+        }
+    }
+
+
+    /**
+     * updates the front-end for one disk, moving its shape to the spot it
+     * occupies in the view's record of the towers.
+     *
+     * @param disk
+     *            is the size of the disk
+     */
+    private void placeDisk(int disk)
+    {
+
+        Disk currentDisk = disks[disk];
+        Shape currentPole = poles[diskPegs[disk]];
 
         int poleX = currentPole.getX();
         int middleOfPole = currentPole.getWidth() / 2 + poleX;
         poleX = middleOfPole - currentDisk.getWidth() / 2;
 
-        int numOfDisks = game.getTower(position).size();
         int bottomOfPole = currentPole.getY() + currentPole.getHeight()
-            - (DISK_HEIGHT * numOfDisks);
+            - (diskHeight * (diskSlots[disk] + 1));
 
         currentDisk.moveTo(poleX, bottomOfPole);
     }
 
 
     /**
-     * Updates the view whenever a disk is moved in the back-end
+     * updates the front-end for one band of a pole. The band is drawn as the
+     * largest disk among the stack slots it stands for, which is the one in
+     * its lowest slot, and is hidden when that slot is empty.
+     *
+     * @param peg
+     *            is the index of the pole
+     * @param band
+     *            is the index of the band, counting up from the bottom
+     */
+    private void drawBand(int peg, int band)
+    {
+        Shape shape = bands[peg][band];
+        int slot = band * disksPerBand;
+        int width = 0;
+        if (slot < towerSizes[peg])
+        {
+            int disk = stacks[peg][slot];
+            width = diskWidths[disk];
+            shape.setBackgroundColor(colorOf(disk));
+        }
+        Shape pole = poles[peg];
+        shape.setWidth(width);
+        shape.setX(pole.getX() + pole.getWidth() / 2 - width / 2);
+    }
+
+
+    /**
+     * Computes the k-th move of the solution being solved, counting from
+     * zero. Past the disks a long can count the moves of, the first 2^63
+     * moves are found with a BigMoveQuery over a single word.
      *
-     * @param o
-     *            The observable that triggered the update
-     * @param arg
-     *            arguments sent by the game; should be a position
+     * @param k
+     *            the index of the move
+     * @return the packed move
+     */
+    private int solutionMove(long k)
+    {
+        MoveRule rule = solveRule;
+        if (bigMoves != null && rule == MoveRule.STANDARD)
+        {
+            bigIndex[0] = k;
+            return bigMoves.moveAt(bigIndex, 0);
+        }
+        return RestrictedSolver.moveAt(rule, game.disks(), k);
+    }
+
+
+    /**
+     * Counts a move made in the back-end for the render loop
+     *
+     * @param move
+     *            the packed move sent by the game
      */
     @Override
-    public void update(Observable o, Object arg)
+    public void moveMade(int move)
     {
-        if (arg.getClass() == Position.class)
+        synchronized (latestPegs)
         {
-            Position position = (Position)arg;
-            moveDisk(position);
-            sleep();
+            latestPegs[Move.disk(move)] = Move.to(move);
+            solvedMoves++;
         }
     }
 
 
     /**
-     * Runs when the Solve button is clicked, tells the puzzle to start solving
+     * Counts a batch of moves made in the back-end for the render loop. The
+     * moves themselves are not kept; they are only recorded in the latest
+     * position of the disks, which is shown when skipping to the end.
+     *
+     * @param moves
+     *            the packed moves sent by the game
+     * @param count
+     *            the number of moves in the batch
+     */
+    @Override
+    public void movesMade(int[] moves, int count)
+    {
+        synchronized (latestPegs)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                latestPegs[Move.disk(moves[i])] = Move.to(moves[i]);
+            }
+            solvedMoves += count;
+        }
+    }
+
+
+    /**
+     * Runs when the Solve button is clicked, tells the puzzle to start solving.
+     * A view detached by a seek follows the solve again, and the scrub index
+     * is rebuilt if the move rule has changed since it was built. Once the
+     * solve is over and every move has been counted here, the window stops
+     * listening, which lets the solver's delivery thread end.
      *
      * @param button
      *            the button that was clicked
@@ -173,20 +884,80 @@ public class PuzzleWindow
     public void clickedSolve(Button button)
     {
         button.disable();
+        MoveRule rule = game.moveRule();
+        solveRule = rule;
+        if (rule != scrubRule)
+        {
+            indexSolution(rule);
+        }
+        follow();
         new Thread() {
             public void run()
             {
-                game.solve();
+                try
+                {
+                    game.solve();
+                }
+                finally
+                {
+                    game.removeMoveListener(PuzzleWindow.this);
+                }
             }
         }.start();
     }
 
 
+    /**
+     * Runs when the Slower button is clicked, halves the animation speed
+     *
+     * @param button
+     *            the button that was clicked
+     */
+    public void clickedSlower(Button button)
+    {
+        int moves = movesPerFrame;
+        if (moves == SKIP_TO_END)
+        {
+            moves = DEFAULT_MOVES_PER_FRAME;
+        }
+        setMovesPerFrame(Math.max(1, moves / 2));
+    }
+
+
+    /**
+     * Runs when the Faster button is clicked, doubles the animation speed
+     *
+     * @param button
+     *            the button that was clicked
+     */
+    public void clickedFaster(Button button)
+    {
+        int moves = movesPerFrame;
+        if (moves < SKIP_TO_END / 2)
+        {
+            setMovesPerFrame(moves * 2);
+        }
+    }
+
+
+    /**
+     * Runs when the Skip to End button is clicked, shows the latest position
+     * at once from now on
+     *
+     * @param button
+     *            the button that was clicked
+     */
+    public void clickedSkip(Button button)
+    {
+        setMovesPerFrame(SKIP_TO_END);
+    }
+
+
     private void sleep()
     {
         try
         {
-            Thread.sleep(75);
+            Thread.sleep(FRAME_MILLIS);
         }
         catch (Exception e)
         {
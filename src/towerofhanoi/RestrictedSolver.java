@@ -0,0 +1,388 @@
+package towerofhanoi;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// -------------------------------------------------------------------------
+/**
+ * This class produces the optimal solutions of the three pole puzzle under
+ * each MoveRule, moving every disk from LEFT to RIGHT, as packed moves (see
+ * Move.pack()). Every solution can be generated in order without recursion,
+ * and its k-th move computed directly in O(n) time.
+ * 
+ * Under the adjacent rule the solution takes 3^n - 1 moves and walks every
+ * configuration of the puzzle once. Move m, counting from 1, is made by disk
+ * 1 + v, where 3^v is the largest power of three dividing m, and each disk
+ * bounces between the end poles: LEFT, MIDDLE, RIGHT, MIDDLE, LEFT and so
+ * on. By move m, disk d has moved m / 3^(d - 1) - m / 3^d times, which gives
+ * the pole it leaves.
+ * 
+ * Under the cyclic rule a stack is moved one step clockwise (Q) or two (R) by
+ * mutual recursion: Q(n) moves n - 1 disks two steps, the largest one step,
+ * and the n - 1 disks two steps again; R(n) moves n - 1 disks two steps, the
+ * largest one step, n - 1 disks one step, the largest one step and n - 1
+ * disks two steps. The lengths of every part are kept in a small table, so
+ * the k-th move is found by descending one level per disk, and generating
+ * uses an explicit stack of at most n frames.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public final class RestrictedSolver
+{
+    /**
+     * The largest number of disks under the adjacent rule whose move count
+     * fits in a long
+     */
+    public static final int MAX_ADJACENT_DISKS = 39;
+    /**
+     * The largest number of disks under the cyclic rule whose move count fits
+     * in a long
+     */
+    public static final int MAX_CYCLIC_DISKS = 43;
+
+    // the poles a disk leaves on its moves under the adjacent rule, mod 4
+    private static final int[] BOUNCE = { 0, 1, 2, 1 };
+
+    // powers of three, and the lengths of the cyclic one step and two step
+    // moves of each number of disks
+    private static final long[] POWERS = new long[MAX_ADJACENT_DISKS + 1];
+    private static final long[] ONE_STEP = new long[MAX_CYCLIC_DISKS + 1];
+    private static final long[] TWO_STEPS = new long[MAX_CYCLIC_DISKS + 1];
+
+    private static final int ONE = 0;
+    private static final int TWO = 1;
+
+    static
+    {
+        POWERS[0] = 1;
+        for (int n = 1; n <= MAX_ADJACENT_DISKS; n++)
+        {
+            POWERS[n] = POWERS[n - 1] * 3;
+        }
+        for (int n = 1; n <= MAX_CYCLIC_DISKS; n++)
+        {
+            ONE_STEP[n] = 2 * TWO_STEPS[n - 1] + 1;
+            TWO_STEPS[n] = 2 * TWO_STEPS[n - 1] + ONE_STEP[n - 1] + 2;
+        }
+    }
+
+    private RestrictedSolver()
+    {
+        // static helpers only
+    }
+
+
+    /**
+     * Retrieves the largest number of disks a rule can be solved for.
+     * 
+     * @param rule
+     *            the move rule.
+     * @return the largest number of disks.
+     */
+    public static int maxDisks(MoveRule rule)
+    {
+        switch (rule)
+        {
+            case ADJACENT:
+                return MAX_ADJACENT_DISKS;
+            case CYCLIC:
+                return MAX_CYCLIC_DISKS;
+            default:
+                return HanoiMath.MAX_DISKS;
+        }
+    }
+
+
+    /**
+     * Computes the number of moves in the optimal solution under a rule.
+     * 
+     * @param rule
+     *            the move rule.
+     * @param numDisks
+     *            the number of disks.
+     * @return the number of moves.
+     * @throws IllegalArgumentException
+     *             if the move count does not fit in a long.
+     */
+    public static long moves(MoveRule rule, int numDisks)
+    {
+        if (numDisks < 0 || numDisks > maxDisks(rule))
+        {
+            throw new IllegalArgumentException(
+                "unsupported number of disks for " + rule + ": " + numDisks);
+        }
+        switch (rule)
+        {
+            case ADJACENT:
+                return POWERS[numDisks] - 1;
+            case CYCLIC:
+                return TWO_STEPS[numDisks];
+            default:
+                return HanoiMath.totalMoves(numDisks);
+        }
+    }
+
+
+    /**
+     * Produces the optimal solution under a rule.
+     * 
+     * @param rule
+     *            the move rule.
+     * @param numDisks
+     *            the number of disks.
+     * @param moves
+     *            is handed each packed move in order.
+     * @return the number of moves produced.
+     * @throws IllegalArgumentException
+     *             if the move count does not fit in a long.
+     */
+    public static long solve(MoveRule rule, int numDisks, IntConsumer moves)
+    {
+        long total = moves(rule, numDisks);
+        switch (rule)
+        {
+            case ADJACENT:
+                solveAdjacent(numDisks, moves);
+                break;
+            case CYCLIC:
+                solveCyclic(numDisks, moves);
+                break;
+            default:
+                new MoveSpliterator(numDisks).forEachRemaining(moves);
+                break;
+        }
+        return total;
+    }
+
+
+    /**
+     * Computes the k-th move of the optimal solution under a rule, counting
+     * from zero, in O(n) time.
+     * 
+     * @param rule
+     *            the move rule.
+     * @param numDisks
+     *            the number of disks.
+     * @param k
+     *            the index of the move.
+     * @return the packed move.
+     * @throws IllegalArgumentException
+     *             if the move count does not fit in a long.
+     * @throws IndexOutOfBoundsException
+     *             if k is out of range.
+     */
+    public static int moveAt(MoveRule rule, int numDisks, long k)
+    {
+        if (k < 0 || k >= moves(rule, numDisks))
+        {
+            throw new IndexOutOfBoundsException("move " + k);
+        }
+        switch (rule)
+        {
+            case ADJACENT:
+                return adjacentMoveAt(k);
+            case CYCLIC:
+                return cyclicMoveAt(numDisks, k);
+            default:
+                return HanoiMath.moveAt(numDisks, k);
+        }
+    }
+
+
+    /**
+     * Generates the adjacent solution. A ternary counter of the moves made
+     * finds the disk to move: it is one more than the number of trailing 2
+     * digits, which the increment clears. Each disk remembers its pole and
+     * which way it is heading.
+     * 
+     * @param numDisks
+     *            the number of disks.
+     * @param moves
+     *            is handed each packed move in order.
+     */
+    private static void solveAdjacent(int numDisks, IntConsumer moves)
+    {
+        byte[] digits = new byte[numDisks];
+        int[] pegs = new int[numDisks];
+        int[] steps = new int[numDisks];
+        Arrays.fill(steps, 1);
+
+        long total = POWERS[numDisks] - 1;
+        for (long move = 0; move < total; move++)
+        {
+            int i = 0;
+            while (digits[i] == 2)
+            {
+                digits[i] = 0;
+                i++;
+            }
+            digits[i]++;
+
+            int from = pegs[i];
+            int to = from + steps[i];
+            if (to != 1)
+            {
+                steps[i] = -steps[i];
+            }
+            pegs[i] = to;
+            moves.accept(Move.pack(i + 1, from, to));
+        }
+    }
+
+
+    /**
+     * Computes the k-th move of the adjacent solution.
+     * 
+     * @param k
+     *            the index of the move.
+     * @return the packed move.
+     */
+    private static int adjacentMoveAt(long k)
+    {
+        long m = k + 1;
+        int disk = 1;
+        while (m % POWERS[disk] == 0)
+        {
+            disk++;
+        }
+        long count = m / POWERS[disk - 1] - m / POWERS[disk];
+        return Move.pack(
+            disk,
+            BOUNCE[(int)((count - 1) & 3)],
+            BOUNCE[(int)(count & 3)]);
+    }
+
+
+    /**
+     * Generates the cyclic solution with an explicit stack. Each frame is a
+     * one or two step move of a number of disks from a pole, and how far
+     * through its parts it has got. The last part of a frame replaces it
+     * instead of being pushed, so the stack never holds more than n frames.
+     * 
+     * @param numDisks
+     *            the number of disks.
+     * @param moves
+     *            is handed each packed move in order.
+     */
+    private static void solveCyclic(int numDisks, IntConsumer moves)
+    {
+        int[] levels = new int[numDisks + 1];
+        int[] kinds = new int[numDisks + 1];
+        int[] bases = new int[numDisks + 1];
+        int[] parts = new int[numDisks + 1];
+        int top = 0;
+        if (numDisks > 0)
+        {
+            levels[0] = numDisks;
+            kinds[0] = TWO;
+            top = 1;
+        }
+
+        while (top > 0)
+        {
+            int frame = top - 1;
+            int level = levels[frame];
+            int base = bases[frame];
+            int part = parts[frame]++;
+            int next = (base + 1) % 3;
+            int last = (base + 2) % 3;
+
+            if (level == 1)
+            {
+                moves.accept(Move.pack(1, base, next));
+                if (kinds[frame] == TWO)
+                {
+                    moves.accept(Move.pack(1, next, last));
+                }
+                top--;
+            }
+            else if (part == 0)
+            {
+                // both kinds start with the smaller disks two steps on
+                levels[top] = level - 1;
+                kinds[top] = TWO;
+                bases[top] = base;
+                parts[top] = 0;
+                top++;
+            }
+            else if (kinds[frame] == ONE)
+            {
+                moves.accept(Move.pack(level, base, next));
+                levels[frame] = level - 1;
+                kinds[frame] = TWO;
+                bases[frame] = last;
+                parts[frame] = 0;
+            }
+            else if (part == 1)
+            {
+                moves.accept(Move.pack(level, base, next));
+                levels[top] = level - 1;
+                kinds[top] = ONE;
+                bases[top] = last;
+                parts[top] = 0;
+                top++;
+            }
+            else
+            {
+                moves.accept(Move.pack(level, next, last));
+                levels[frame] = level - 1;
+                kinds[frame] = TWO;
+                parts[frame] = 0;
+            }
+        }
+    }
+
+
+    /**
+     * Computes the k-th move of the cyclic solution by descending from the
+     * whole solution into the part holding move k, one level per disk.
+     * 
+     * @param numDisks
+     *            the number of disks.
+     * @param k
+     *            the index of the move.
+     * @return the packed move.
+     */
+    private static int cyclicMoveAt(int numDisks, long k)
+    {
+        int kind = TWO;
+        int base = 0;
+        for (int level = numDisks; level > 0; level--)
+        {
+            long smaller = TWO_STEPS[level - 1];
+            int next = (base + 1) % 3;
+            int last = (base + 2) % 3;
+            if (k < smaller)
+            {
+                kind = TWO;
+                continue;
+            }
+            k -= smaller;
+            if (k == 0)
+            {
+                return Move.pack(level, base, next);
+            }
+            k--;
+            if (kind == ONE)
+            {
+                kind = TWO;
+                base = last;
+                continue;
+            }
+            if (k < ONE_STEP[level - 1])
+            {
+                kind = ONE;
+                base = last;
+                continue;
+            }
+            k -= ONE_STEP[level - 1];
+            if (k == 0)
+            {
+                return Move.pack(level, next, last);
+            }
+            k--;
+        }
+        throw new IllegalStateException("move " + k + " not found");
+    }
+}
@@ -0,0 +1,261 @@
+package towerofhanoi;
+
+// -------------------------------------------------------------------------
+/**
+ * This class makes any point of a solution quick to reach. It keeps a sparse
+ * index of snapshots of the towers, one every interval() moves, each being
+ * the three occupancy masks of a BitTowers. Seeking to move k restores the
+ * snapshot at or before k and replays the moves after it headlessly, so no
+ * more than interval() moves are ever replayed. The interval is the smallest
+ * power of two that keeps every snapshot within a memory budget; the default
+ * budget of a megabyte puts a 25 disk solution 1024 moves apart.
+ * 
+ * Snapshots of the standard solution are computed directly from the move
+ * index, so building the index costs O(n) per snapshot. Under the other move
+ * rules the index is built in one pass over the whole solution.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public class SnapshotIndex
+{
+    /**
+     * The default memory budget for the snapshots, in bytes
+     */
+    public static final long DEFAULT_BUDGET_BYTES = 1L << 20;
+
+    private static final int SNAPSHOT_BYTES = 3 * Long.BYTES;
+
+    private final int numDisks;
+    private final MoveRule rule;
+    private final long totalMoves;
+    private final int shift;
+    private final long[] snapshots;
+
+    /**
+     * Builds the index of the solution under a move rule that moves every
+     * disk from pole 0 to pole 2.
+     * 
+     * @param numDisks
+     *            the number of disks.
+     * @param rule
+     *            the move rule of the solution.
+     * @param budgetBytes
+     *            the most memory the snapshots may take.
+     * @throws IllegalArgumentException
+     *             if the move count does not fit in a long, or the budget
+     *             does not hold two snapshots.
+     */
+    public SnapshotIndex(int numDisks, MoveRule rule, long budgetBytes)
+    {
+        if (budgetBytes < 2 * SNAPSHOT_BYTES)
+        {
+            throw new IllegalArgumentException("budget: " + budgetBytes);
+        }
+        this.numDisks = numDisks;
+        this.rule = rule;
+        this.totalMoves = RestrictedSolver.moves(rule, numDisks);
+        this.shift = Long.numberOfTrailingZeros(
+            interval(totalMoves, budgetBytes));
+        int count = (int)(totalMoves >>> shift) + 1;
+        this.snapshots = new long[3 * count];
+
+        if (rule == MoveRule.STANDARD)
+        {
+            indexDirectly(count);
+        }
+        else
+        {
+            indexByReplay();
+        }
+    }
+
+
+    /**
+     * Computes the interval between snapshots that an index of a solution
+     * would use, without building it.
+     * 
+     * @param numDisks
+     *            the number of disks.
+     * @param rule
+     *            the move rule of the solution.
+     * @param budgetBytes
+     *            the most memory the snapshots may take.
+     * @return the number of moves between two snapshots.
+     * @throws IllegalArgumentException
+     *             if the move count does not fit in a long, or the budget
+     *             does not hold two snapshots.
+     */
+    public static long interval(int numDisks, MoveRule rule, long budgetBytes)
+    {
+        if (budgetBytes < 2 * SNAPSHOT_BYTES)
+        {
+            throw new IllegalArgumentException("budget: " + budgetBytes);
+        }
+        return interval(RestrictedSolver.moves(rule, numDisks), budgetBytes);
+    }
+
+
+    /**
+     * Finds the smallest power of two interval that keeps the snapshots of a
+     * solution within a budget.
+     * 
+     * @param totalMoves
+     *            the number of moves in the solution.
+     * @param budgetBytes
+     *            the most memory the snapshots may take.
+     * @return the number of moves between two snapshots.
+     */
+    private static long interval(long totalMoves, long budgetBytes)
+    {
+        long maxSnapshots = Math.min(
+            budgetBytes / SNAPSHOT_BYTES,
+            Integer.MAX_VALUE / 3);
+        int bits = 0;
+        while ((totalMoves >>> bits) + 1 > maxSnapshots)
+        {
+            bits++;
+        }
+        return 1L << bits;
+    }
+
+
+    /**
+     * Retrieves the number of moves in the indexed solution.
+     * 
+     * @return the number of moves.
+     */
+    public long moves()
+    {
+        return totalMoves;
+    }
+
+
+    /**
+     * Retrieves the number of moves between two snapshots, which is the most
+     * a seek ever replays.
+     * 
+     * @return the interval.
+     */
+    public long interval()
+    {
+        return 1L << shift;
+    }
+
+
+    /**
+     * Retrieves the number of snapshots held.
+     * 
+     * @return the number of snapshots.
+     */
+    public int snapshots()
+    {
+        return snapshots.length / 3;
+    }
+
+
+    /**
+     * Sets towers to the configuration after the first k moves of the
+     * solution.
+     * 
+     * @param k
+     *            the number of moves made, from 0 to moves().
+     * @param towers
+     *            the towers to set, with disks() disks and three poles.
+     * @throws IndexOutOfBoundsException
+     *             if k is out of range.
+     * @throws IllegalArgumentException
+     *             if the towers are not the right size.
+     */
+    public void seek(long k, BitTowers towers)
+    {
+        if (k < 0 || k > totalMoves)
+        {
+            throw new IndexOutOfBoundsException("move " + k);
+        }
+        if (towers.disks() != numDisks || towers.pegs() != 3)
+        {
+            throw new IllegalArgumentException(
+                "towers must hold " + numDisks + " disks on three poles");
+        }
+
+        int snapshot = (int)(k >>> shift);
+        long[] masks = new long[3];
+        System.arraycopy(snapshots, 3 * snapshot, masks, 0, 3);
+        towers.setMasks(masks);
+
+        long first = (long)snapshot << shift;
+        if (rule == MoveRule.STANDARD)
+        {
+            new MoveSpliterator(numDisks, first, k).forEachRemaining(
+                (int move) -> towers.move(Move.from(move), Move.to(move)));
+        }
+        else
+        {
+            for (long i = first; i < k; i++)
+            {
+                int move = RestrictedSolver.moveAt(rule, numDisks, i);
+                towers.move(Move.from(move), Move.to(move));
+            }
+        }
+    }
+
+
+    /**
+     * Fills in every snapshot of the standard solution from the closed form
+     * position of each disk.
+     * 
+     * @param count
+     *            the number of snapshots.
+     */
+    private void indexDirectly(int count)
+    {
+        int[] pegs = new int[numDisks];
+        for (int snapshot = 0; snapshot < count; snapshot++)
+        {
+            HanoiMath.pegsAt(numDisks, (long)snapshot << shift, pegs);
+            for (int disk = 1; disk <= numDisks; disk++)
+            {
+                snapshots[3 * snapshot + pegs[disk - 1]] |= 1L << (disk - 1);
+            }
+        }
+    }
+
+
+    /**
+     * Fills in every snapshot by replaying the whole solution once.
+     */
+    private void indexByReplay()
+    {
+        BitTowers towers = new BitTowers(numDisks);
+        towers.fill(0);
+        long mask = (1L << shift) - 1;
+        long[] made = new long[1];
+        record(towers, 0);
+        RestrictedSolver.solve(rule, numDisks, move -> {
+            towers.move(Move.from(move), Move.to(move));
+            made[0]++;
+            if ((made[0] & mask) == 0)
+            {
+                record(towers, (int)(made[0] >>> shift));
+            }
+        });
+    }
+
+
+    /**
+     * Stores the configuration of towers as a snapshot.
+     * 
+     * @param towers
+     *            the towers.
+     * @param snapshot
+     *            the index of the snapshot.
+     */
+    private void record(BitTowers towers, int snapshot)
+    {
+        for (int peg = 0; peg < 3; peg++)
+        {
+            snapshots[3 * snapshot + peg] = towers.mask(peg);
+        }
+    }
+}
@@ -0,0 +1,809 @@
+package towerofhanoi;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// -------------------------------------------------------------------------
+/**
+ * This class serves solutions over HTTP, so that tools needing them can ask a
+ * running server instead of each starting a JVM with its own solver. It runs
+ * on the JDK's built-in HTTP server, handling every request on its own
+ * virtual thread, and only listens on the loopback address. Three GET
+ * endpoints are served:
+ * 
+ * <pre>
+ * /moves?n=N&amp;a=A&amp;b=B[&amp;rule=R][&amp;format=F]
+ *                              moves A (inclusive) to B (exclusive) of the
+ *                              solution, one line per move; R is standard,
+ *                              adjacent or cyclic. F is pairs, the default,
+ *                              for "from to" lines that
+ *                              MoveValidator.validateText() reads, or disks
+ *                              for "disk from to" lines
+ * /state?n=N&amp;k=K               the pole of every disk after K moves of the
+ *                              standard solution, as JSON
+ * /log?n=N[&amp;start=S][&amp;goal=G] the shortest solution from S to G as a
+ *                              binary MoveLog file
+ * </pre>
+ * 
+ * S and G give the pole of every disk, smallest first, as a string of digits
+ * 0 to 2; they default to every disk on pole 0 and every disk on pole 2.
+ * Each move is computed as it is written and responses are sent in chunks,
+ * so even a billion move response only ever holds a buffer's worth of it.
+ * Responses up to CACHE_ENTRY_BYTES are also kept in a cache bounded by a
+ * total number of bytes, least recently used first out, and sent straight
+ * from it when asked for again. Bad parameters get a 400 response.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public class SolveServer
+{
+    /**
+     * The largest response that is cached
+     */
+    public static final int CACHE_ENTRY_BYTES = 1 << 20;
+    /**
+     * The default total size of the cached responses
+     */
+    public static final long DEFAULT_CACHE_BYTES = 64L << 20;
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ResponseCache cache;
+
+    // ~ private class ........................................................
+    /**
+     * The bodies of recent responses, keyed by request, holding at most a
+     * given number of bytes in all.
+     * 
+     * @author cooln
+     * @version Oct 16, 2026
+     */
+    private static class ResponseCache
+    {
+        private final long capacity;
+        private final LinkedHashMap<String, byte[]> entries;
+        private long bytes;
+
+        /**
+         * Creates an empty cache.
+         * 
+         * @param capacity
+         *            the largest total size of the cached bodies.
+         */
+        public ResponseCache(long capacity)
+        {
+            this.capacity = capacity;
+            this.entries = new LinkedHashMap<String, byte[]>(16, 0.75f, true);
+        }
+
+
+        /**
+         * Looks up a response body.
+         * 
+         * @param key
+         *            the request.
+         * @return the body, or null if it is not cached.
+         */
+        public synchronized byte[] get(String key)
+        {
+            return entries.get(key);
+        }
+
+
+        /**
+         * Caches a response body, evicting the least recently used ones
+         * until the total fits.
+         * 
+         * @param key
+         *            the request.
+         * @param body
+         *            the body.
+         */
+        public synchronized void put(String key, byte[] body)
+        {
+            if (body.length > capacity)
+            {
+                return;
+            }
+            byte[] old = entries.put(key, body);
+            if (old != null)
+            {
+                bytes -= old.length;
+            }
+            bytes += body.length;
+            Iterator<byte[]> eldest = entries.values().iterator();
+            while (bytes > capacity)
+            {
+                bytes -= eldest.next().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    // ~ private class ........................................................
+    /**
+     * The body of a response on its way out. Everything written goes to the
+     * client through a buffer, and is also copied aside until it grows past
+     * CACHE_ENTRY_BYTES, so that small responses can be cached once
+     * complete.
+     * 
+     * @author cooln
+     * @version Oct 16, 2026
+     */
+    private static class Body
+        extends OutputStream
+    {
+        private final OutputStream out;
+        private ByteArrayOutputStream copy;
+
+        /**
+         * Starts a body.
+         * 
+         * @param out
+         *            the stream to the client.
+         */
+        public Body(OutputStream out)
+        {
+            this.out = new BufferedOutputStream(out, BUFFER_BYTES);
+            this.copy = new ByteArrayOutputStream();
+        }
+
+
+        /**
+         * Writes one byte.
+         * 
+         * @param b
+         *            the byte.
+         * @throws IOException
+         *             if the client can't be written to.
+         */
+        @Override
+        public void write(int b)
+            throws IOException
+        {
+            out.write(b);
+            if (copy != null)
+            {
+                copy.write(b);
+                checkCopy();
+            }
+        }
+
+
+        /**
+         * Writes part of an array.
+         * 
+         * @param b
+         *            the bytes.
+         * @param off
+         *            the index of the first byte to write.
+         * @param len
+         *            the number of bytes to write.
+         * @throws IOException
+         *             if the client can't be written to.
+         */
+        @Override
+        public void write(byte[] b, int off, int len)
+            throws IOException
+        {
+            out.write(b, off, len);
+            if (copy != null)
+            {
+                copy.write(b, off, len);
+                checkCopy();
+            }
+        }
+
+
+        /**
+         * Stops copying once the body is too large to cache.
+         */
+        private void checkCopy()
+        {
+            if (copy.size() > CACHE_ENTRY_BYTES)
+            {
+                copy = null;
+            }
+        }
+
+
+        /**
+         * Retrieves the whole body, if it was small enough to keep.
+         * 
+         * @return the body, or null if it was too large.
+         */
+        public byte[] copy()
+        {
+            return copy == null ? null : copy.toByteArray();
+        }
+
+
+        /**
+         * Sends whatever is still buffered and ends the response.
+         * 
+         * @throws IOException
+         *             if the client can't be written to.
+         */
+        @Override
+        public void close()
+            throws IOException
+        {
+            out.close();
+        }
+    }
+
+    // ~ private class ........................................................
+    /**
+     * Writes one response body.
+     * 
+     * @author cooln
+     * @version Oct 16, 2026
+     */
+    private interface Responder
+    {
+        /**
+         * Writes the body.
+         * 
+         * @param out
+         *            the body.
+         * @throws IOException
+         *             if the client can't be written to.
+         */
+        void respond(OutputStream out)
+            throws IOException;
+    }
+
+    // ~ private class ........................................................
+    /**
+     * Builds a response from the parameters of a request.
+     * 
+     * @author cooln
+     * @version Oct 16, 2026
+     */
+    private interface Endpoint
+    {
+        /**
+         * Checks the parameters and prepares the response.
+         * 
+         * @param params
+         *            the query parameters.
+         * @return writes the body.
+         * @throws IllegalArgumentException
+         *             if the parameters are not valid.
+         */
+        Responder prepare(Map<String, String> params);
+    }
+
+    /**
+     * Creates a server on a port of the loopback address with the default
+     * cache size. It does not accept requests until started.
+     * 
+     * @param port
+     *            the port, or 0 for any free one.
+     * @throws IOException
+     *             if the port can't be bound.
+     */
+    public SolveServer(int port)
+        throws IOException
+    {
+        this(port, DEFAULT_CACHE_BYTES);
+    }
+
+
+    /**
+     * Creates a server on a port of the loopback address. It does not accept
+     * requests until started.
+     * 
+     * @param port
+     *            the port, or 0 for any free one.
+     * @param cacheBytes
+     *            the largest total size of the cached responses, 0 for no
+     *            cache.
+     * @throws IOException
+     *             if the port can't be bound.
+     * @throws IllegalArgumentException
+     *             if the cache size is negative.
+     */
+    public SolveServer(int port, long cacheBytes)
+        throws IOException
+    {
+        if (cacheBytes < 0)
+        {
+            throw new IllegalArgumentException("cache size: " + cacheBytes);
+        }
+        cache = new ResponseCache(cacheBytes);
+        server = HttpServer.create(
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+            0);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/moves", exchange -> handle(exchange,
+            "text/plain; charset=utf-8", SolveServer::moves));
+        server.createContext("/state", exchange -> handle(exchange,
+            "application/json", SolveServer::state));
+        server.createContext("/log", exchange -> handle(exchange,
+            "application/octet-stream", SolveServer::log));
+    }
+
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start()
+    {
+        server.start();
+    }
+
+
+    /**
+     * Stops accepting requests, waiting up to a given time for the ones
+     * being served to finish.
+     * 
+     * @param delaySeconds
+     *            the longest time to wait.
+     */
+    public void stop(int delaySeconds)
+    {
+        server.stop(delaySeconds);
+        executor.shutdownNow();
+    }
+
+
+    /**
+     * Retrieves the port the server listens on.
+     * 
+     * @return the port.
+     */
+    public int port()
+    {
+        return server.getAddress().getPort();
+    }
+
+
+    /**
+     * Serves one request: from the cache if it is there, otherwise by
+     * streaming the body the endpoint writes and caching it if it is small.
+     * 
+     * @param exchange
+     *            the request and its response.
+     * @param contentType
+     *            the type of the body.
+     * @param endpoint
+     *            prepares the body.
+     * @throws IOException
+     *             if the client can't be written to.
+     */
+    private void handle(
+        HttpExchange exchange,
+        String contentType,
+        Endpoint endpoint)
+        throws IOException
+    {
+        try (exchange)
+        {
+            if (!exchange.getRequestMethod().equals("GET"))
+            {
+                sendError(exchange, 405, "only GET is supported");
+                return;
+            }
+            String key = exchange.getRequestURI().toString();
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+
+            byte[] cached = cache.get(key);
+            if (cached != null)
+            {
+                exchange.sendResponseHeaders(200, cached.length);
+                exchange.getResponseBody().write(cached);
+                return;
+            }
+
+            Responder responder;
+            try
+            {
+                responder = endpoint.prepare(
+                    parseQuery(exchange.getRequestURI().getRawQuery()));
+            }
+            catch (IllegalArgumentException | IndexOutOfBoundsException e)
+            {
+                sendError(exchange, 400, e.getMessage());
+                return;
+            }
+
+            exchange.sendResponseHeaders(200, 0);
+            Body body = new Body(exchange.getResponseBody());
+            try
+            {
+                responder.respond(body);
+            }
+            catch (UncheckedIOException e)
+            {
+                throw e.getCause();
+            }
+            body.close();
+            byte[] copy = body.copy();
+            if (copy != null)
+            {
+                cache.put(key, copy);
+            }
+        }
+    }
+
+
+    /**
+     * Sends a plain text error response.
+     * 
+     * @param exchange
+     *            the request and its response.
+     * @param status
+     *            the HTTP status.
+     * @param message
+     *            what went wrong.
+     * @throws IOException
+     *             if the client can't be written to.
+     */
+    private static void sendError(
+        HttpExchange exchange,
+        int status,
+        String message)
+        throws IOException
+    {
+        byte[] text = (message + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set(
+            "Content-Type",
+            "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, text.length);
+        exchange.getResponseBody().write(text);
+    }
+
+
+    /**
+     * Splits a query string into its parameters.
+     * 
+     * @param query
+     *            the raw query, or null for none.
+     * @return the parameters by name.
+     */
+    private static Map<String, String> parseQuery(String query)
+    {
+        Map<String, String> params = new HashMap<String, String>();
+        if (query == null)
+        {
+            return params;
+        }
+        for (String param : query.split("&"))
+        {
+            int equals = param.indexOf('=');
+            if (equals > 0)
+            {
+                params.put(
+                    URLDecoder.decode(
+                        param.substring(0, equals),
+                        StandardCharsets.UTF_8),
+                    URLDecoder.decode(
+                        param.substring(equals + 1),
+                        StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+
+    /**
+     * Reads a required whole number parameter.
+     * 
+     * @param params
+     *            the parameters.
+     * @param name
+     *            the name of the parameter.
+     * @return its value.
+     * @throws IllegalArgumentException
+     *             if it is missing or not a number.
+     */
+    private static long number(Map<String, String> params, String name)
+    {
+        String value = params.get(name);
+        if (value == null)
+        {
+            throw new IllegalArgumentException("missing parameter: " + name);
+        }
+        return Long.parseLong(value);
+    }
+
+
+    /**
+     * Reads the number of disks, parameter n.
+     * 
+     * @param params
+     *            the parameters.
+     * @return the number of disks.
+     * @throws IllegalArgumentException
+     *             if it is missing, or too large for a move count to fit in a
+     *             long.
+     */
+    private static int disks(Map<String, String> params)
+    {
+        long numDisks = number(params, "n");
+        if (numDisks < 0 || numDisks > HanoiMath.MAX_DISKS)
+        {
+            throw new IllegalArgumentException(
+                "unsupported number of disks: " + numDisks);
+        }
+        return (int)numDisks;
+    }
+
+
+    /**
+     * Reads a configuration parameter: the pole of every disk, smallest
+     * first, as a string of digits.
+     * 
+     * @param params
+     *            the parameters.
+     * @param name
+     *            the name of the parameter.
+     * @param numDisks
+     *            the number of disks.
+     * @param peg
+     *            the pole of every disk if the parameter is missing.
+     * @return the pole of disk d at index d - 1.
+     * @throws IllegalArgumentException
+     *             if it is not a valid configuration.
+     */
+    private static int[] configuration(
+        Map<String, String> params,
+        String name,
+        int numDisks,
+        int peg)
+    {
+        int[] pegs = new int[numDisks];
+        String value = params.get(name);
+        if (value == null)
+        {
+            Arrays.fill(pegs, peg);
+            return pegs;
+        }
+        if (value.length() != numDisks)
+        {
+            throw new IllegalArgumentException(
+                name + " must place " + numDisks + " disks");
+        }
+        for (int i = 0; i < numDisks; i++)
+        {
+            pegs[i] = value.charAt(i) - '0';
+            if (pegs[i] < 0 || pegs[i] > 2)
+            {
+                throw new IllegalArgumentException(
+                    name + ": no such pole for disk " + (i + 1));
+            }
+        }
+        return pegs;
+    }
+
+
+    /**
+     * Prepares a range of the moves of a solution.
+     * 
+     * @param params
+     *            n, a, b and optionally rule and format.
+     * @return writes the moves, one per line.
+     */
+    private static Responder moves(Map<String, String> params)
+    {
+        int numDisks = disks(params);
+        long first = number(params, "a");
+        long end = number(params, "b");
+        String ruleName = params.getOrDefault("rule", "standard");
+        MoveRule rule;
+        try
+        {
+            rule = MoveRule.valueOf(ruleName.toUpperCase());
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IllegalArgumentException("no such rule: " + ruleName);
+        }
+        String format = params.getOrDefault("format", "pairs");
+        boolean disks;
+        if (format.equals("pairs"))
+        {
+            disks = false;
+        }
+        else if (format.equals("disks"))
+        {
+            disks = true;
+        }
+        else
+        {
+            throw new IllegalArgumentException("no such format: " + format);
+        }
+        long total = RestrictedSolver.moves(rule, numDisks);
+        if (first < 0 || end > total || first > end)
+        {
+            throw new IndexOutOfBoundsException(
+                "moves " + first + ".." + end + " of " + total);
+        }
+
+        return out -> {
+            byte[] line = new byte[16];
+            if (rule == MoveRule.STANDARD)
+            {
+                Spliterator.OfInt moves =
+                    new MoveSpliterator(numDisks, first, end);
+                moves.forEachRemaining(
+                    (int move) -> writeLine(out, line, move, disks));
+            }
+            else
+            {
+                for (long k = first; k < end; k++)
+                {
+                    writeLine(
+                        out,
+                        line,
+                        RestrictedSolver.moveAt(rule, numDisks, k),
+                        disks);
+                }
+            }
+        };
+    }
+
+
+    /**
+     * Writes a move as a "from to" line, or a "disk from to" line.
+     * 
+     * @param out
+     *            the body.
+     * @param line
+     *            a buffer for the line.
+     * @param move
+     *            the packed move.
+     * @param withDisk
+     *            whether to start the line with the size of the disk.
+     * @throws UncheckedIOException
+     *             if the client can't be written to.
+     */
+    private static void writeLine(
+        OutputStream out,
+        byte[] line,
+        int move,
+        boolean withDisk)
+    {
+        int end = line.length;
+        line[--end] = '\n';
+        line[--end] = (byte)('0' + Move.to(move));
+        line[--end] = ' ';
+        line[--end] = (byte)('0' + Move.from(move));
+        if (withDisk)
+        {
+            int disk = Move.disk(move);
+            line[--end] = ' ';
+            do
+            {
+                line[--end] = (byte)('0' + disk % 10);
+                disk /= 10;
+            }
+            while (disk > 0);
+        }
+        try
+        {
+            out.write(line, end, line.length - end);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /**
+     * Prepares the configuration after a number of moves of the standard
+     * solution.
+     * 
+     * @param params
+     *            n and k.
+     * @return writes the poles as JSON.
+     */
+    private static Responder state(Map<String, String> params)
+    {
+        int numDisks = disks(params);
+        long k = number(params, "k");
+        int[] pegs = new int[numDisks];
+        HanoiMath.pegsAt(numDisks, k, pegs);
+
+        StringBuilder json = new StringBuilder();
+        json.append("{\"n\":").append(numDisks);
+        json.append(",\"k\":").append(k);
+        json.append(",\"pegs\":[");
+        for (int i = 0; i < numDisks; i++)
+        {
+            if (i > 0)
+            {
+                json.append(',');
+            }
+            json.append(pegs[i]);
+        }
+        json.append("]}\n");
+        byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+        return out -> out.write(body);
+    }
+
+
+    /**
+     * Prepares the shortest solution between two configurations as a move
+     * log.
+     * 
+     * @param params
+     *            n and optionally start and goal.
+     * @return writes the log.
+     */
+    private static Responder log(Map<String, String> params)
+    {
+        int numDisks = disks(params);
+        int[] start = configuration(params, "start", numDisks, 0);
+        int[] goal = configuration(params, "goal", numDisks, 2);
+        long total = ConfigurationSolver.distance(start, goal);
+
+        return out -> {
+            ByteBuffer header = MoveLog.header(numDisks, total);
+            out.write(header.array(), 0, header.limit());
+            int[] pending = new int[2];
+            ConfigurationSolver.solve(start, goal, move -> {
+                int code = MoveLog.pairCode(Move.from(move), Move.to(move));
+                pending[0] |= code << (2 * pending[1]);
+                pending[1]++;
+                if (pending[1] == 4)
+                {
+                    writeByte(out, pending[0]);
+                    pending[0] = 0;
+                    pending[1] = 0;
+                }
+            });
+            if (pending[1] > 0)
+            {
+                writeByte(out, pending[0]);
+            }
+        };
+    }
+
+
+    /**
+     * Writes one byte of a body.
+     * 
+     * @param out
+     *            the body.
+     * @param b
+     *            the byte.
+     * @throws UncheckedIOException
+     *             if the client can't be written to.
+     */
+    private static void writeByte(OutputStream out, int b)
+    {
+        try
+        {
+            out.write(b);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package towerofhanoi;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// -------------------------------------------------------------------------
+/**
+ * This class collects metrics about a running solve: the moves made between
+ * each pair of poles, how long listeners take to handle their moves, and how
+ * far behind the slowest listener is. Move counts are striped LongAdders, so
+ * counting a move never contends with the threads reading them, and listener
+ * latencies go into a LatencyHistogram. Once started, it samples the move
+ * rate and queue depth on a fixed interval and logs a line per sample. It can
+ * be registered as an MBean to be watched with any JMX console.
+ * 
+ * A solver only collects metrics while a SolverMetrics is enabled on it; with
+ * none enabled the move path does nothing extra but one null check.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public class SolverMetrics
+    implements SolverMetricsMBean
+{
+    private static final Logger LOG =
+        Logger.getLogger(SolverMetrics.class.getName());
+
+    private final int numPegs;
+    private final LongAdder[] moves;
+    private final LatencyHistogram listenerLatency;
+    private volatile MoveEventBus events;
+    private volatile double movesPerSecond;
+    private volatile long queueDepth;
+    private long lastTotal;
+    private long lastSample;
+    private ScheduledExecutorService sampler;
+    private ObjectName name;
+
+    /**
+     * Creates metrics for a solver with the given number of poles.
+     * 
+     * @param numPegs
+     *            the number of poles.
+     * @throws IllegalArgumentException
+     *             if there are fewer than three poles.
+     */
+    public SolverMetrics(int numPegs)
+    {
+        if (numPegs < 3)
+        {
+            throw new IllegalArgumentException(
+                "unsupported number of poles: " + numPegs);
+        }
+        this.numPegs = numPegs;
+        moves = new LongAdder[numPegs * numPegs];
+        for (int i = 0; i < moves.length; i++)
+        {
+            moves[i] = new LongAdder();
+        }
+        listenerLatency = new LatencyHistogram();
+    }
+
+
+    /**
+     * Retrieves the number of poles the metrics are for.
+     * 
+     * @return the number of poles.
+     */
+    public int pegs()
+    {
+        return numPegs;
+    }
+
+
+    /**
+     * Counts a move.
+     * 
+     * @param from
+     *            the pole the disk was taken from.
+     * @param to
+     *            the pole the disk was placed on.
+     */
+    public void moveMade(int from, int to)
+    {
+        moves[from * numPegs + to].increment();
+    }
+
+
+    /**
+     * Counts a batch of packed moves (see Move.pack()), adding to each pair
+     * of poles once rather than once per move.
+     * 
+     * @param batch
+     *            the packed moves.
+     * @param count
+     *            the number of moves in the batch.
+     */
+    public void movesMade(int[] batch, int count)
+    {
+        int[] pairs = new int[moves.length];
+        for (int i = 0; i < count; i++)
+        {
+            pairs[Move.from(batch[i]) * numPegs + Move.to(batch[i])]++;
+        }
+        for (int pair = 0; pair < pairs.length; pair++)
+        {
+            if (pairs[pair] != 0)
+            {
+                moves[pair].add(pairs[pair]);
+            }
+        }
+    }
+
+
+    /**
+     * Returns the number of moves made from one of the three standard poles
+     * to another.
+     * 
+     * @param from
+     *            the pole the disks were taken from.
+     * @param to
+     *            the pole the disks were placed on.
+     * @return the number of moves.
+     */
+    public long moves(Position from, Position to)
+    {
+        return moves[from.ordinal() * numPegs + to.ordinal()].sum();
+    }
+
+
+    /**
+     * Retrieves the histogram of listener callback latencies.
+     * 
+     * @return the histogram, in nanoseconds.
+     */
+    public LatencyHistogram listenerLatency()
+    {
+        return listenerLatency;
+    }
+
+
+    /**
+     * Sets the event bus whose backlog is sampled as the queue depth.
+     * 
+     * @param bus
+     *            the bus, or null for none.
+     */
+    void watch(MoveEventBus bus)
+    {
+        events = bus;
+    }
+
+
+    /**
+     * Starts sampling the move rate and queue depth, logging a line each
+     * time. Does nothing if sampling has already started.
+     * 
+     * @param intervalMillis
+     *            the time between two samples.
+     * @throws IllegalArgumentException
+     *             if the interval is not positive.
+     */
+    public synchronized void start(long intervalMillis)
+    {
+        if (intervalMillis <= 0)
+        {
+            throw new IllegalArgumentException(
+                "sampling interval: " + intervalMillis);
+        }
+        if (sampler != null)
+        {
+            return;
+        }
+        lastTotal = getTotalMoves();
+        lastSample = System.nanoTime();
+        sampler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "solver-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(
+            this::sample,
+            intervalMillis,
+            intervalMillis,
+            TimeUnit.MILLISECONDS);
+    }
+
+
+    /**
+     * Stops sampling.
+     */
+    public synchronized void stop()
+    {
+        if (sampler != null)
+        {
+            sampler.shutdownNow();
+            sampler = null;
+        }
+    }
+
+
+    /**
+     * Takes one sample of the move rate and queue depth and logs it.
+     */
+    private void sample()
+    {
+        long now = System.nanoTime();
+        long total = getTotalMoves();
+        movesPerSecond = (total - lastTotal) * 1e9 / (now - lastSample);
+        lastTotal = total;
+        lastSample = now;
+
+        MoveEventBus bus = events;
+        queueDepth = bus == null ? 0 : bus.backlog();
+
+        LOG.info(String.format(
+            "moves %d, %.0f moves/s, queue %d, listener p50 %d ns, "
+                + "p99 %d ns, max %d ns",
+            total,
+            movesPerSecond,
+            queueDepth,
+            getListenerLatencyP50Nanos(),
+            getListenerLatencyP99Nanos(),
+            getListenerLatencyMaxNanos()));
+    }
+
+
+    /**
+     * Registers the metrics with the platform MBean server.
+     * 
+     * @param solverName
+     *            names this solver among any others registered.
+     * @return the name the MBean was registered under.
+     * @throws IllegalStateException
+     *             if it can't be registered, for example because the name is
+     *             taken.
+     */
+    public synchronized ObjectName register(String solverName)
+    {
+        try
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(
+                "towerofhanoi:type=SolverMetrics,name="
+                    + ObjectName.quote(solverName));
+            server.registerMBean(this, objectName);
+            name = objectName;
+            return objectName;
+        }
+        catch (JMException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    /**
+     * Removes the metrics from the platform MBean server, if registered.
+     */
+    public synchronized void unregister()
+    {
+        if (name == null)
+        {
+            return;
+        }
+        try
+        {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        }
+        catch (JMException e)
+        {
+            throw new IllegalStateException(e);
+        }
+        name = null;
+    }
+
+
+    /**
+     * Returns the number of moves made since the metrics were created.
+     * 
+     * @return the number of moves.
+     */
+    @Override
+    public long getTotalMoves()
+    {
+        long total = 0;
+        for (LongAdder adder : moves)
+        {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+
+    /**
+     * Returns the moves made between every pair of poles, the moves from
+     * pole a to pole b at index a * pegs + b.
+     * 
+     * @return the number of moves per pair of poles.
+     */
+    @Override
+    public long[] getMovesByPoles()
+    {
+        long[] counts = new long[moves.length];
+        for (int i = 0; i < moves.length; i++)
+        {
+            counts[i] = moves[i].sum();
+        }
+        return counts;
+    }
+
+
+    /**
+     * Returns the move rate over the last sampling interval.
+     * 
+     * @return the moves per second.
+     */
+    @Override
+    public double getMovesPerSecond()
+    {
+        return movesPerSecond;
+    }
+
+
+    /**
+     * Returns the largest number of moves a listener had yet to receive at
+     * the last sample.
+     * 
+     * @return the listener queue depth.
+     */
+    @Override
+    public long getQueueDepth()
+    {
+        return queueDepth;
+    }
+
+
+    /**
+     * Returns the number of listener callbacks timed.
+     * 
+     * @return the number of callbacks.
+     */
+    @Override
+    public long getListenerCalls()
+    {
+        return listenerLatency.count();
+    }
+
+
+    /**
+     * Returns the median listener callback latency.
+     * 
+     * @return the latency in nanoseconds.
+     */
+    @Override
+    public long getListenerLatencyP50Nanos()
+    {
+        return listenerLatency.valueAtPercentile(50);
+    }
+
+
+    /**
+     * Returns the 99th percentile listener callback latency.
+     * 
+     * @return the latency in nanoseconds.
+     */
+    @Override
+    public long getListenerLatencyP99Nanos()
+    {
+        return listenerLatency.valueAtPercentile(99);
+    }
+
+
+    /**
+     * Returns the slowest listener callback.
+     * 
+     * @return the latency in nanoseconds.
+     */
+    @Override
+    public long getListenerLatencyMaxNanos()
+    {
+        return listenerLatency.max();
+    }
+
+
+    /**
+     * Forgets the listener latencies recorded so far.
+     */
+    @Override
+    public void resetListenerLatency()
+    {
+        listenerLatency.clear();
+    }
+}
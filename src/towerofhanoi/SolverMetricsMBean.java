@@ -0,0 +1,82 @@
+package towerofhanoi;
+
+// -------------------------------------------------------------------------
+/**
+ * The management interface of SolverMetrics, as seen through JMX.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public interface SolverMetricsMBean
+{
+    /**
+     * Returns the number of moves made since the metrics were created.
+     * 
+     * @return the number of moves.
+     */
+    long getTotalMoves();
+
+
+    /**
+     * Returns the moves made between every pair of poles, the moves from
+     * pole a to pole b at index a * pegs + b.
+     * 
+     * @return the number of moves per pair of poles.
+     */
+    long[] getMovesByPoles();
+
+
+    /**
+     * Returns the move rate over the last sampling interval.
+     * 
+     * @return the moves per second.
+     */
+    double getMovesPerSecond();
+
+
+    /**
+     * Returns the largest number of moves a listener had yet to receive at
+     * the last sample.
+     * 
+     * @return the listener queue depth.
+     */
+    long getQueueDepth();
+
+
+    /**
+     * Returns the number of listener callbacks timed.
+     * 
+     * @return the number of callbacks.
+     */
+    long getListenerCalls();
+
+
+    /**
+     * Returns the median listener callback latency.
+     * 
+     * @return the latency in nanoseconds.
+     */
+    long getListenerLatencyP50Nanos();
+
+
+    /**
+     * Returns the 99th percentile listener callback latency.
+     * 
+     * @return the latency in nanoseconds.
+     */
+    long getListenerLatencyP99Nanos();
+
+
+    /**
+     * Returns the slowest listener callback.
+     * 
+     * @return the latency in nanoseconds.
+     */
+    long getListenerLatencyMaxNanos();
+
+
+    /**
+     * Forgets the listener latencies recorded so far.
+     */
+    void resetListenerLatency();
+}
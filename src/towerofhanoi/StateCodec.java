@@ -0,0 +1,148 @@
+package towerofhanoi;
+
+// -------------------------------------------------------------------------
+/**
+ * This class packs a configuration of the three pole puzzle into a single
+ * long. The pole of disk d, 1 being the smallest, is the base 3 digit worth
+ * 3^(d - 1), so every configuration of n disks maps to a distinct number from
+ * 0 to 3^n - 1 and the whole state graph can be indexed by it. Moving disk d
+ * from pole a to pole b simply adds (b - a) * 3^(d - 1) to the code.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public final class StateCodec
+{
+    /**
+     * The largest number of disks whose configurations fit in a long
+     */
+    public static final int MAX_DISKS = 39;
+
+    private static final long[] POWERS = new long[MAX_DISKS + 1];
+
+    static
+    {
+        POWERS[0] = 1;
+        for (int i = 1; i <= MAX_DISKS; i++)
+        {
+            POWERS[i] = 3 * POWERS[i - 1];
+        }
+    }
+
+    private StateCodec()
+    {
+        // static helpers only
+    }
+
+
+    /**
+     * Computes 3^exponent.
+     * 
+     * @param exponent
+     *            the exponent, from 0 to MAX_DISKS.
+     * @return the power of three.
+     */
+    public static long power(int exponent)
+    {
+        return POWERS[exponent];
+    }
+
+
+    /**
+     * Computes the number of configurations of a puzzle, 3^n.
+     * 
+     * @param numDisks
+     *            the number of disks.
+     * @return the number of configurations.
+     * @throws IllegalArgumentException
+     *             if the configurations do not fit in a long.
+     */
+    public static long stateCount(int numDisks)
+    {
+        if (numDisks < 0 || numDisks > MAX_DISKS)
+        {
+            throw new IllegalArgumentException(
+                "unsupported number of disks: " + numDisks);
+        }
+        return POWERS[numDisks];
+    }
+
+
+    /**
+     * Packs a configuration into its code.
+     * 
+     * @param pegs
+     *            the pole of disk d at index d - 1.
+     * @return the code of the configuration.
+     * @throws IllegalArgumentException
+     *             if there are too many disks or a pole is not 0, 1 or 2.
+     */
+    public static long encode(int[] pegs)
+    {
+        stateCount(pegs.length);
+        long code = 0;
+        for (int i = pegs.length - 1; i >= 0; i--)
+        {
+            if (pegs[i] < 0 || pegs[i] > 2)
+            {
+                throw new IllegalArgumentException(
+                    "disk " + (i + 1) + " is not on a pole");
+            }
+            code = 3 * code + pegs[i];
+        }
+        return code;
+    }
+
+
+    /**
+     * Unpacks a code into a configuration.
+     * 
+     * @param code
+     *            the code of the configuration.
+     * @param pegs
+     *            receives the pole of disk d at index d - 1; its length is
+     *            the number of disks.
+     */
+    public static void decode(long code, int[] pegs)
+    {
+        for (int i = 0; i < pegs.length; i++)
+        {
+            pegs[i] = (int)(code % 3);
+            code /= 3;
+        }
+    }
+
+
+    /**
+     * Finds the pole of one disk in a packed configuration.
+     * 
+     * @param code
+     *            the code of the configuration.
+     * @param disk
+     *            the size of the disk, 1 being the smallest.
+     * @return the pole holding the disk.
+     */
+    public static int pegOf(long code, int disk)
+    {
+        return (int)(code / POWERS[disk - 1] % 3);
+    }
+
+
+    /**
+     * Computes the code after a move.
+     * 
+     * @param code
+     *            the code of the configuration before the move.
+     * @param disk
+     *            the size of the moved disk.
+     * @param from
+     *            the pole the disk is taken from.
+     * @param to
+     *            the pole the disk is placed on.
+     * @return the code of the configuration after the move.
+     */
+    public static long move(long code, int disk, int from, int to)
+    {
+        return code + (to - from) * POWERS[disk - 1];
+    }
+}
@@ -0,0 +1,492 @@
+package towerofhanoi;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// -------------------------------------------------------------------------
+/**
+ * This class explores the whole state graph of the three pole puzzle, all
+ * 3^n configurations, breadth first from a starting configuration. States
+ * are indexed by their StateCodec code and each one gets a two bit mark that
+ * is 0 while it is unseen and 1 + (distance mod 3) once it is reached. The
+ * marks live off the heap in direct buffers, sixteen states to an int, so 20
+ * disks (about 3.5 billion states) take 830 MB and no garbage collection
+ * work. Knowing every state's distance mod 3 is enough to recover its exact
+ * distance by walking back to the start.
+ * 
+ * The search is level synchronous. The graph's diameter is 2^n - 1, far more
+ * levels than it would be sensible to scan the whole mark array for, so each
+ * level keeps an explicit list of its states. Large levels are expanded in
+ * parallel slices, with unseen neighbours claimed by a compare-and-set on
+ * their word of the mark array.
+ * 
+ * The graph can be explored under any MoveRule, in which case only the moves
+ * the rule allows are edges. The adjacent rule stretches the graph to 3^n - 1
+ * levels and the cyclic rule to nearly as many, so both take fewer disks (see
+ * maxDisks()). Cyclic moves can't be undone in one move, so a neighbour of a
+ * state may be much farther from the start than the state itself, and its
+ * distance mod 3 no longer tells the way back; under that rule distanceTo()
+ * searches again from the start until it reaches the configuration.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public class StateGraphExplorer
+{
+    /**
+     * The largest number of disks that can be explored
+     */
+    public static final int MAX_DISKS = 24;
+    /**
+     * The largest number of disks that can be explored under the adjacent
+     * rule
+     */
+    public static final int MAX_ADJACENT_DISKS = 15;
+    /**
+     * The largest number of disks that can be explored under the cyclic rule
+     */
+    public static final int MAX_CYCLIC_DISKS = 16;
+
+    private static final int UNSEEN = 0;
+    private static final int STATES_PER_WORD = 16;
+    private static final int WORDS_PER_SEGMENT_SHIFT = 28;
+    private static final long WORDS_PER_SEGMENT =
+        1L << WORDS_PER_SEGMENT_SHIFT;
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+    private static final int SLICE_SIZE = 1 << 11;
+
+    private static final VarHandle WORDS =
+        MethodHandles.byteBufferViewVarHandle(
+            int[].class,
+            ByteOrder.nativeOrder());
+
+    private final int numDisks;
+    private final MoveRule rule;
+    private final long stateCount;
+    private final long wordCount;
+    private final ByteBuffer[] segments;
+    private long start;
+    private boolean explored;
+
+    /**
+     * Allocates the off-heap marks for every configuration of a puzzle.
+     * 
+     * @param numDisks
+     *            the number of disks.
+     * @throws IllegalArgumentException
+     *             if there are more than MAX_DISKS disks.
+     */
+    public StateGraphExplorer(int numDisks)
+    {
+        this(numDisks, MoveRule.STANDARD);
+    }
+
+
+    /**
+     * Allocates the off-heap marks for every configuration of a puzzle whose
+     * moves follow a rule.
+     * 
+     * @param numDisks
+     *            the number of disks.
+     * @param rule
+     *            the rule on which poles disks may move between.
+     * @throws IllegalArgumentException
+     *             if the rule is null or there are more than
+     *             maxDisks(rule) disks.
+     */
+    public StateGraphExplorer(int numDisks, MoveRule rule)
+    {
+        if (rule == null)
+        {
+            throw new IllegalArgumentException("move rule is null");
+        }
+        if (numDisks < 0 || numDisks > maxDisks(rule))
+        {
+            throw new IllegalArgumentException(
+                "unsupported number of disks for " + rule + ": "
+                    + numDisks);
+        }
+        this.numDisks = numDisks;
+        this.rule = rule;
+        this.stateCount = StateCodec.stateCount(numDisks);
+        this.wordCount = (stateCount + STATES_PER_WORD - 1) / STATES_PER_WORD;
+
+        segments = new ByteBuffer[(int)(
+            (wordCount + WORDS_PER_SEGMENT - 1) / WORDS_PER_SEGMENT)];
+        for (int i = 0; i < segments.length; i++)
+        {
+            long words = Math.min(
+                WORDS_PER_SEGMENT,
+                wordCount - i * WORDS_PER_SEGMENT);
+            segments[i] = ByteBuffer.allocateDirect((int)(words * 4));
+        }
+    }
+
+
+    /**
+     * Retrieves the largest number of disks that can be explored under a
+     * rule.
+     * 
+     * @param rule
+     *            the move rule.
+     * @return the largest number of disks.
+     */
+    public static int maxDisks(MoveRule rule)
+    {
+        switch (rule)
+        {
+            case ADJACENT:
+                return MAX_ADJACENT_DISKS;
+            case CYCLIC:
+                return MAX_CYCLIC_DISKS;
+            default:
+                return MAX_DISKS;
+        }
+    }
+
+
+    /**
+     * Retrieves the total number of disks in the puzzle.
+     * 
+     * @return The number of disks.
+     */
+    public int disks()
+    {
+        return numDisks;
+    }
+
+
+    /**
+     * Retrieves the rule the graph's moves follow.
+     * 
+     * @return the move rule.
+     */
+    public MoveRule moveRule()
+    {
+        return rule;
+    }
+
+
+    /**
+     * Runs a breadth first search from one configuration, replacing the
+     * results of any earlier search.
+     * 
+     * @param startCode
+     *            the code of the starting configuration.
+     * @return the number of configurations at each distance from the start;
+     *         its length minus one is the eccentricity of the start.
+     * @throws IllegalArgumentException
+     *             if the code is not a configuration of this puzzle.
+     */
+    public long[] explore(long startCode)
+    {
+        checkState(startCode);
+        return search(startCode, -1);
+    }
+
+
+    /**
+     * Runs a breadth first search from one configuration, stopping at the
+     * end of the level that reaches a target.
+     * 
+     * @param startCode
+     *            the code of the starting configuration.
+     * @param target
+     *            the code of the configuration to stop at, or -1 to search
+     *            the whole graph.
+     * @return the number of configurations at each distance searched.
+     */
+    private long[] search(long startCode, long target)
+    {
+        if (explored)
+        {
+            for (ByteBuffer segment : segments)
+            {
+                for (int i = 0; i < segment.capacity(); i += 4)
+                {
+                    WORDS.set(segment, i, UNSEEN);
+                }
+            }
+        }
+        explored = true;
+        start = startCode;
+        claim(startCode, markFor(0));
+
+        long[] layers = new long[64];
+        layers[0] = 1;
+        int distance = 0;
+        long[] frontier = { startCode };
+        while (frontier.length > 0
+            && (target < 0 || mark(target) == UNSEEN))
+        {
+            distance++;
+            frontier = expand(frontier, markFor(distance));
+            if (frontier.length == 0)
+            {
+                distance--;
+                break;
+            }
+            if (distance == layers.length)
+            {
+                layers = Arrays.copyOf(layers, 2 * layers.length);
+            }
+            layers[distance] = frontier.length;
+        }
+        return Arrays.copyOf(layers, distance + 1);
+    }
+
+
+    /**
+     * Finds the distance of a configuration from the start of the last
+     * search, by repeatedly stepping to a neighbour one closer to the start,
+     * or under the cyclic rule by searching from the start again.
+     * 
+     * @param code
+     *            the code of the configuration.
+     * @return its distance from the start.
+     * @throws IllegalArgumentException
+     *             if the code is not a configuration of this puzzle.
+     * @throws IllegalStateException
+     *             if no search has been run.
+     */
+    public long distanceTo(long code)
+    {
+        checkState(code);
+        if (!explored)
+        {
+            throw new IllegalStateException("explore() has not been run");
+        }
+        if (rule == MoveRule.CYCLIC)
+        {
+            return search(start, code).length - 1;
+        }
+
+        long[] neighbours = new long[6];
+        long distance = 0;
+        while (code != start)
+        {
+            int closer = 1 + (mark(code) + 1) % 3;
+            int count = neighbours(code, neighbours);
+            for (int i = 0; i < count; i++)
+            {
+                if (mark(neighbours[i]) == closer)
+                {
+                    code = neighbours[i];
+                    break;
+                }
+            }
+            distance++;
+        }
+        return distance;
+    }
+
+
+    /**
+     * Checks that a code belongs to this puzzle.
+     * 
+     * @param code
+     *            the code to check.
+     */
+    private void checkState(long code)
+    {
+        if (code < 0 || code >= stateCount)
+        {
+            throw new IllegalArgumentException("no such state: " + code);
+        }
+    }
+
+
+    /**
+     * Computes the mark of a state at a given distance.
+     * 
+     * @param distance
+     *            the distance from the start.
+     * @return 1 + (distance mod 3).
+     */
+    private static int markFor(long distance)
+    {
+        return 1 + (int)(distance % 3);
+    }
+
+
+    /**
+     * Expands one level of the search, in parallel slices when it is large.
+     * 
+     * @param frontier
+     *            the states of the current level.
+     * @param mark
+     *            the mark for states of the next level.
+     * @return the states of the next level.
+     */
+    private long[] expand(long[] frontier, int mark)
+    {
+        if (frontier.length < PARALLEL_THRESHOLD)
+        {
+            return expandSlice(frontier, 0, frontier.length, mark);
+        }
+
+        int slices = (frontier.length + SLICE_SIZE - 1) / SLICE_SIZE;
+        long[][] found = IntStream.range(0, slices)
+            .parallel()
+            .mapToObj(slice -> expandSlice(
+                frontier,
+                slice * SLICE_SIZE,
+                Math.min(frontier.length, (slice + 1) * SLICE_SIZE),
+                mark))
+            .toArray(long[][]::new);
+
+        int total = 0;
+        for (long[] part : found)
+        {
+            total += part.length;
+        }
+        long[] next = new long[total];
+        int offset = 0;
+        for (long[] part : found)
+        {
+            System.arraycopy(part, 0, next, offset, part.length);
+            offset += part.length;
+        }
+        return next;
+    }
+
+
+    /**
+     * Claims the unseen neighbours of part of a level.
+     * 
+     * @param frontier
+     *            the states of the current level.
+     * @param from
+     *            the index of the first state to expand.
+     * @param to
+     *            the index just past the last state to expand.
+     * @param mark
+     *            the mark for states of the next level.
+     * @return the newly claimed states.
+     */
+    private long[] expandSlice(long[] frontier, int from, int to, int mark)
+    {
+        long[] next = new long[Math.max(16, 2 * (to - from))];
+        int size = 0;
+        long[] neighbours = new long[6];
+        for (int i = from; i < to; i++)
+        {
+            int count = neighbours(frontier[i], neighbours);
+            for (int j = 0; j < count; j++)
+            {
+                if (claim(neighbours[j], mark))
+                {
+                    if (size == next.length)
+                    {
+                        next = Arrays.copyOf(next, 2 * next.length);
+                    }
+                    next[size] = neighbours[j];
+                    size++;
+                }
+            }
+        }
+        return Arrays.copyOf(next, size);
+    }
+
+
+    /**
+     * Lists the configurations one legal move away under the rule. The top of
+     * each pole is the smallest disk found on it, so scanning the digits from
+     * the smallest disk up can stop as soon as all three tops are known.
+     * 
+     * @param code
+     *            the code of the configuration.
+     * @param neighbours
+     *            receives the codes of the neighbours.
+     * @return the number of neighbours, at most 3.
+     */
+    private int neighbours(long code, long[] neighbours)
+    {
+        int[] tops = { 0, 0, 0 };
+        int found = 0;
+        long rest = code;
+        for (int disk = 1; disk <= numDisks && found < 3; disk++)
+        {
+            int peg = (int)(rest % 3);
+            rest /= 3;
+            if (tops[peg] == 0)
+            {
+                tops[peg] = disk;
+                found++;
+            }
+        }
+
+        int count = 0;
+        for (int from = 0; from < 3; from++)
+        {
+            if (tops[from] == 0)
+            {
+                continue;
+            }
+            for (int to = 0; to < 3; to++)
+            {
+                if (rule.allows(from, to)
+                    && (tops[to] == 0 || tops[to] > tops[from]))
+                {
+                    neighbours[count] =
+                        StateCodec.move(code, tops[from], from, to);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+
+    /**
+     * Reads the mark of a state.
+     * 
+     * @param code
+     *            the code of the state.
+     * @return 0 if unseen, otherwise 1 + (distance mod 3).
+     */
+    private int mark(long code)
+    {
+        long word = code / STATES_PER_WORD;
+        int shift = (int)(code % STATES_PER_WORD) * 2;
+        int bits = (int)WORDS.getVolatile(
+            segments[(int)(word >>> WORDS_PER_SEGMENT_SHIFT)],
+            (int)(word & (WORDS_PER_SEGMENT - 1)) * 4);
+        return (bits >>> shift) & 3;
+    }
+
+
+    /**
+     * Marks a state if it has not been seen yet.
+     * 
+     * @param code
+     *            the code of the state.
+     * @param mark
+     *            the mark to give it.
+     * @return true if this call claimed the state.
+     */
+    private boolean claim(long code, int mark)
+    {
+        long word = code / STATES_PER_WORD;
+        int shift = (int)(code % STATES_PER_WORD) * 2;
+        ByteBuffer segment = segments[(int)(word >>> WORDS_PER_SEGMENT_SHIFT)];
+        int index = (int)(word & (WORDS_PER_SEGMENT - 1)) * 4;
+        while (true)
+        {
+            int bits = (int)WORDS.getVolatile(segment, index);
+            if (((bits >>> shift) & 3) != UNSEEN)
+            {
+                return false;
+            }
+            int marked = bits | (mark << shift);
+            if (WORDS.compareAndSet(segment, index, bits, marked))
+            {
+                return true;
+            }
+        }
+    }
+}
@@ -5,12 +5,14 @@ package towerofhanoi;
  * This class represents the disk objects that we will be using to solve 
  * the tower of hanoi recursion problem. 
  * The Tower class extends the LinkedStack class with the
- * parameter type Disk. Each Tower object represents one of the rods in the
- * Tower of Hanoi puzzle. A tower can have multiple disks, but a fundamental
+ * parameter type Disk. Each Tower object represents one of the rods in
+ * the Tower of Hanoi puzzle. A tower can have multiple disks, but a fundamental
  * rule applies: smaller disks can only be placed on top of larger ones. Any
  * violation of this rule will result in an exception being thrown. This class
  * ensures that the game's rules are strictly adhered to during the process of
- * pushing a disk onto a tower.
+ * pushing a disk onto a tower. Each tower also keeps a Zobrist hash of the
+ * disks on it, updated on every push and pop. ArrayTower is the same tower
+ * with its disks kept in an ArrayStack instead.
  * 
  * @author cooln
  * @version Oct 9, 2023
@@ -20,6 +22,8 @@ public class Tower
 {
 
     private Position position;
+    private int peg;
+    private long hash;
 
     /**
      * Constructor for creating a new instance of a Tower. Every tower needs to
@@ -32,9 +36,41 @@ public class Tower
      *            The position where the tower is located.
      */
     public Tower(Position position)
+    {
+        this(position.ordinal(), position);
+    }
+
+
+    /**
+     * Constructor for creating a new instance of a Tower on a numbered pole,
+     * for puzzles with more than three poles. Poles 0, 1 and 2 are the LEFT,
+     * MIDDLE and RIGHT positions; any further pole has the DEFAULT position.
+     *
+     * @param peg
+     *            The index of the pole where the tower is located.
+     */
+    public Tower(int peg)
+    {
+        this(
+            peg,
+            peg < 3 ? Position.values()[peg] : Position.DEFAULT);
+    }
+
+
+    /**
+     * Shared constructor that sets both the pole index and the position.
+     *
+     * @param peg
+     *            The index of the pole where the tower is located.
+     * @param position
+     *            The position where the tower is located.
+     */
+    private Tower(int peg, Position position)
     {
         super();
+        this.peg = peg;
         this.position = position;
+        this.hash = 0;
     }
 
 
@@ -54,11 +90,63 @@ public class Tower
 
 
     /**
-     * Overrides the default push method provided by LinkedStack for the Disk
-     * type. Before adding a new disk to the tower, this method ensures that the
-     * game's rule is maintained: a larger disk can't be placed on top of a
-     * smaller one. If the rule is violated or if a null disk is provided,
-     * appropriate exceptions will be thrown to maintain the game's integrity.
+     * Fetches the index of the pole this tower is on. For the three pole
+     * puzzle this is the ordinal of its position.
+     * 
+     * @return the index of the pole, counting from 0.
+     */
+    public int peg()
+    {
+        return peg;
+    }
+
+
+    /**
+     * Returns the Zobrist hash of the disks on the tower: the XOR of the key
+     * of each disk on this pole. The hashes of all towers XORed together
+     * identify the configuration of the whole puzzle.
+     *
+     * @return The hash of the tower, 0 when it is empty.
+     */
+    public long hash()
+    {
+        return hash;
+    }
+
+
+    /**
+     * Removes every disk from the tower.
+     */
+    @Override
+    public void clear()
+    {
+        super.clear();
+        hash = 0;
+    }
+
+
+    /**
+     * Removes the disk on top of the tower and returns it.
+     *
+     * @return The disk that was on top of the tower.
+     * @throws java.util.EmptyStackException
+     *             if the tower is empty.
+     */
+    @Override
+    public Disk pop()
+    {
+        Disk disk = super.pop();
+        hash ^= Zobrist.key(disk.size(), peg);
+        return disk;
+    }
+
+
+    /**
+     * Adds a disk to the top of the tower. Before adding a new disk to the
+     * tower, this method ensures that the game's rule is maintained: a larger
+     * disk can't be placed on top of a smaller one. If the rule is violated or
+     * if a null disk is provided, appropriate exceptions will be thrown to
+     * maintain the game's integrity.
      *
      * @param disk
      *            The disk to be added to the top of the tower.
@@ -75,18 +163,37 @@ public class Tower
             throw new IllegalArgumentException("disk is null");
         }
 
-        if (isEmpty())
-        {
-            super.push(disk);
-        }
-        else if (disk.compareTo(peek()) < 0)
-        {
-            super.push(disk);
-        }
-        else
+        if (!isEmpty() && disk.compareTo(peek()) >= 0)
         {
             throw new IllegalStateException();
         }
+        super.push(disk);
+        hash ^= Zobrist.key(disk.size(), peg);
+    }
+
 
+    /**
+     * Moves the top disk of this tower onto another tower without checking
+     * that it is smaller than the disk it lands on. Only meant for solves
+     * whose every move is legal by construction, such as the binary move
+     * counter. The stack node itself is moved, so nothing is allocated.
+     * The caller hands over the Zobrist keys of the disk, which it can look
+     * up once per disk rather than compute on every move.
+     *
+     * @param destination
+     *            The tower to move the disk onto.
+     * @param sourceKey
+     *            The key of the top disk on this tower's pole.
+     * @param destinationKey
+     *            The key of the top disk on the destination's pole.
+     */
+    void moveTopUnchecked(
+        Tower destination,
+        long sourceKey,
+        long destinationKey)
+    {
+        moveTopTo(destination);
+        hash ^= sourceKey;
+        destination.hash ^= destinationKey;
     }
 }
@@ -0,0 +1,211 @@
+package towerofhanoi;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// -------------------------------------------------------------------------
+/**
+ * This class remembers results of planning from one configuration to
+ * another, keyed by the Zobrist hashes of the two, so that planning again
+ * from a configuration seen before costs a single lookup. It holds at most a
+ * fixed number of entries and evicts the least recently used one when full.
+ * Hits and misses are counted to show how well it is working. Two different
+ * configurations hashing alike is possible but, with 64 bit hashes, too
+ * unlikely to matter.
+ * 
+ * @param <V>
+ *            the type of the remembered results.
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+public class TranspositionCache<V>
+{
+    private final int capacity;
+    private final Map<Key, V> entries;
+    private long hits;
+    private long misses;
+
+    // ~ private class ........................................................
+    /**
+     * A pair of start and goal hashes.
+     * 
+     * @author cooln
+     * @version Oct 16, 2026
+     */
+    private static final class Key
+    {
+        private final long state;
+        private final long goal;
+
+        /**
+         * Creates a key.
+         * 
+         * @param state
+         *            the hash of the start configuration.
+         * @param goal
+         *            the hash of the goal configuration.
+         */
+        public Key(long state, long goal)
+        {
+            this.state = state;
+            this.goal = goal;
+        }
+
+
+        /**
+         * Compares this key to another object.
+         * 
+         * @param obj
+         *            the object to compare to.
+         * @return true if it is a key with the same hashes.
+         */
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (!(obj instanceof Key))
+            {
+                return false;
+            }
+            Key other = (Key)obj;
+            return state == other.state && goal == other.goal;
+        }
+
+
+        /**
+         * Computes a hash code from both hashes.
+         * 
+         * @return the hash code.
+         */
+        @Override
+        public int hashCode()
+        {
+            return Long.hashCode(state * 31 + goal);
+        }
+    }
+
+    /**
+     * Creates an empty cache.
+     * 
+     * @param capacity
+     *            the largest number of entries to keep.
+     * @throws IllegalArgumentException
+     *             if the capacity is not positive.
+     */
+    public TranspositionCache(int capacity)
+    {
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException("capacity: " + capacity);
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<Key, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, V> eldest)
+            {
+                return size() > TranspositionCache.this.capacity;
+            }
+        };
+    }
+
+
+    /**
+     * Looks up the result for a start and goal, counting a hit or a miss.
+     * 
+     * @param state
+     *            the hash of the start configuration.
+     * @param goal
+     *            the hash of the goal configuration.
+     * @return the remembered result, or null if there is none.
+     */
+    public synchronized V get(long state, long goal)
+    {
+        V value = entries.get(new Key(state, goal));
+        if (value == null)
+        {
+            misses++;
+        }
+        else
+        {
+            hits++;
+        }
+        return value;
+    }
+
+
+    /**
+     * Remembers the result for a start and goal, evicting the least recently
+     * used entry if the cache is full.
+     * 
+     * @param state
+     *            the hash of the start configuration.
+     * @param goal
+     *            the hash of the goal configuration.
+     * @param value
+     *            the result.
+     * @throws IllegalArgumentException
+     *             if the value is null.
+     */
+    public synchronized void put(long state, long goal, V value)
+    {
+        if (value == null)
+        {
+            throw new IllegalArgumentException("value is null");
+        }
+        entries.put(new Key(state, goal), value);
+    }
+
+
+    /**
+     * Returns the number of entries held.
+     * 
+     * @return the number of entries.
+     */
+    public synchronized int size()
+    {
+        return entries.size();
+    }
+
+
+    /**
+     * Returns the largest number of entries held.
+     * 
+     * @return the capacity.
+     */
+    public int capacity()
+    {
+        return capacity;
+    }
+
+
+    /**
+     * Returns the number of lookups that found a result.
+     * 
+     * @return the number of hits.
+     */
+    public synchronized long hits()
+    {
+        return hits;
+    }
+
+
+    /**
+     * Returns the number of lookups that found nothing.
+     * 
+     * @return the number of misses.
+     */
+    public synchronized long misses()
+    {
+        return misses;
+    }
+
+
+    /**
+     * Forgets every entry and resets the counters.
+     */
+    public synchronized void clear()
+    {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+    }
+}
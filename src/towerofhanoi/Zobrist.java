@@ -0,0 +1,57 @@
+package towerofhanoi;
+
+// -------------------------------------------------------------------------
+/**
+ * Zobrist hashing of puzzle configurations. Every (disk, pole) pair has a
+ * fixed random 64 bit key, and a configuration hashes to the XOR of the keys
+ * of where each disk is. Moving a disk therefore updates a hash with two
+ * XORs, whatever the number of disks. The keys come from the SplitMix64
+ * mixer applied to the pair, so they need no table and are the same in every
+ * run.
+ * 
+ * @author cooln
+ * @version Oct 16, 2026
+ */
+final class Zobrist
+{
+    private Zobrist()
+    {
+        // static helpers only
+    }
+
+
+    /**
+     * Computes the key of a disk sitting on a pole.
+     * 
+     * @param disk
+     *            the size of the disk, 1 being the smallest.
+     * @param peg
+     *            the pole, from 0 to 15.
+     * @return the key.
+     */
+    static long key(int disk, int peg)
+    {
+        long z = (((long)disk << 4) | peg) + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+
+    /**
+     * Computes the hash of a whole configuration.
+     * 
+     * @param pegs
+     *            the pole of disk d, 1 being the smallest, at index d - 1.
+     * @return the hash.
+     */
+    static long hash(int[] pegs)
+    {
+        long hash = 0;
+        for (int disk = 1; disk <= pegs.length; disk++)
+        {
+            hash ^= key(disk, pegs[disk - 1]);
+        }
+        return hash;
+    }
+}